@@ -0,0 +1,92 @@
+package com.example.bankcards;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Compares a JMH JSON result file with the committed baseline and exits with
+ * status 1 when a benchmark got slower or allocates more per operation than
+ * the tolerance allows:
+ * <pre>
+ * mvn -Pbenchmark test-compile exec:exec -Djmh.main=com.example.bankcards.BaselineComparison \
+ *     -Djmh.args="src/jmh/baseline.json target/jmh-result.json 15"
+ * </pre>
+ * Benchmarks present in only one of the files are listed but not judged.
+ * Timings are only comparable between runs on the same machine.
+ */
+public final class BaselineComparison {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+    // Below this many bytes per operation allocation changes are noise
+    private static final double ALLOCATION_SLACK = 16;
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BaselineComparison <baseline.json> <result.json> [tolerance %]");
+            System.exit(2);
+        }
+        Map<String, JsonNode> baseline = read(args[0]);
+        Map<String, JsonNode> current = read(args[1]);
+        double tolerance = args.length > 2 ? Double.parseDouble(args[2]) / 100 : 0.10;
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %8s %12s %12s%n", "benchmark", "baseline", "current", "change",
+                "B/op before", "B/op now");
+        for (Map.Entry<String, JsonNode> entry : current.entrySet()) {
+            JsonNode now = entry.getValue();
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-70s %14s %14.2f%n", entry.getKey(), "new", score(now));
+                continue;
+            }
+            boolean higherIsBetter = "thrpt".equals(now.path("mode").asText());
+            double change = score(now) / score(before) - 1;
+            boolean slower = higherIsBetter ? change < -tolerance : change > tolerance;
+            double allocBefore = allocation(before);
+            double allocNow = allocation(now);
+            boolean allocates = allocNow > allocBefore * (1 + tolerance) + ALLOCATION_SLACK;
+            if (slower || allocates)
+                regressions++;
+            System.out.printf("%-70s %14.2f %14.2f %+7.1f%% %12.0f %12.0f%s%n", entry.getKey(), score(before),
+                    score(now), change * 100, allocBefore, allocNow, slower || allocates ? "  REGRESSION" : "");
+        }
+        baseline.keySet().stream().filter(key -> !current.containsKey(key))
+                .forEach(key -> System.out.printf("%-70s %14s%n", key, "not run"));
+
+        System.out.printf("%d regression(s), tolerance %.0f%%%n", regressions, tolerance * 100);
+        System.exit(regressions > 0 ? 1 : 0);
+    }
+
+    // Keyed by benchmark method plus its @Param values
+    private static Map<String, JsonNode> read(String path) throws IOException {
+        Map<String, JsonNode> results = new LinkedHashMap<>();
+        for (JsonNode result : new ObjectMapper().readTree(new File(path))) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText()
+                    .replace("com.example.bankcards.", ""));
+            result.path("params").fields().forEachRemaining(param -> key.append(' ').append(param.getKey())
+                    .append('=').append(param.getValue().asText()));
+            results.put(key.toString(), result);
+        }
+        return results;
+    }
+
+    private static double score(JsonNode result) {
+        return result.path("primaryMetric").path("score").asDouble();
+    }
+
+    // JMH before 1.37 prefixes secondary metric names with a middle dot
+    private static double allocation(JsonNode result) {
+        JsonNode metrics = result.path("secondaryMetrics");
+        JsonNode metric = metrics.has(ALLOCATION) ? metrics.path(ALLOCATION) : metrics.path("·" + ALLOCATION);
+        return metric.path("score").asDouble(0);
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.example.bankcards.cache;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.bankcards.config.CardCacheConfig;
+import com.example.bankcards.config.ConcurrencyConfig;
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.CustomUserDetails;
+import com.example.bankcards.service.CardService;
+
+/**
+ * Cached vs uncached CardService.getCard. The repository is an in-memory stub,
+ * so the uncached figure excludes the database round trip that the cache
+ * actually saves; it isolates the lookup, access check and mapping cost.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CardCacheBenchmark {
+
+    private CardCache cardCache;
+    private CardService cardService;
+    private UUID cardId;
+
+    @Setup
+    public void setUp() {
+        User owner = User.builder().id(10L).username("bench").fullName("Bench User").role(Role.USER).build();
+
+        Card card = new Card();
+        card.setId(UUID.randomUUID());
+        card.setOwner(owner);
+        card.setPlainNumber("1234567887654321");
+        card.setExpiryYear(2030);
+        card.setExpiryMonth(10);
+        card.setStatus(CardStatus.ACTIVE);
+        card.setBalance(BigDecimal.valueOf(100));
+        cardId = card.getId();
+
+        CardRepository cardRepository = (CardRepository) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { CardRepository.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("findById") || method.getName().equals("findByIdAndOwnerId"))
+                        return Optional.of(card);
+                    throw new UnsupportedOperationException(method.getName());
+                });
+
+        cardCache = new CardCache(new CardCacheConfig());
+        cardService = new CardService((UserRepository) null, cardRepository, cardCache, null, new ConcurrencyConfig(), event -> {
+        });
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken(new CustomUserDetails(owner), null, "ROLE_USER"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public CardDto cachedRead() {
+        return cardService.getCard(cardId);
+    }
+
+    @Benchmark
+    public CardDto uncachedRead() {
+        cardCache.evict(cardId);
+        return cardService.getCard(cardId);
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.example.bankcards.dto;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.bankcards.entity.CardStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Jackson serialization of the Page&lt;CardDto&gt; that GET /api/cards/user/{id}
+ * returns, with an ObjectMapper configured the way Spring Boot builds it.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PageSerializationBenchmark {
+
+    @Param({ "20", "100" })
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Page<CardDto> page;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        List<CardDto> cards = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++)
+            cards.add(new CardDto(UUID.randomUUID(), "**** **** **** " + (1000 + i), "Ivan Petrovich Sidorov",
+                    2030, 1 + i % 12, CardStatus.ACTIVE, BigDecimal.valueOf(12_345_67L + i, 2)));
+        page = new PageImpl<>(cards, PageRequest.of(0, pageSize), 1000);
+    }
+
+    @Benchmark
+    public byte[] cardPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.example.bankcards.ratelimit;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import com.example.bankcards.config.RateLimitConfig;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Cost RateLimiter.acquire adds to an allowed request. The limit is set high
+ * enough never to reject, so the figures are the bucket lookup plus the CAS.
+ * {@code contendedKey} has every thread hitting the same bucket, the worst
+ * case for the CAS loop.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RateLimiterBenchmark {
+
+    private static final int USERS = 50_000;
+
+    private RateLimiter rateLimiter;
+
+    @Setup
+    public void setUp() {
+        RateLimitConfig.Limit transfer = new RateLimitConfig.Limit();
+        transfer.setCapacity(Integer.MAX_VALUE);
+        transfer.setRefillPeriod(Duration.ofNanos(1));
+        RateLimitConfig config = new RateLimitConfig();
+        config.setLimits(Map.of(RateLimits.TRANSFER, transfer));
+        rateLimiter = new RateLimiter(config, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public void singleKey() {
+        rateLimiter.acquire(RateLimits.TRANSFER, 1L);
+    }
+
+    @Benchmark
+    public void manyKeys() {
+        rateLimiter.acquire(RateLimits.TRANSFER, (long) ThreadLocalRandom.current().nextInt(USERS));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void contendedKey() {
+        rateLimiter.acquire(RateLimits.TRANSFER, 1L);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void manyKeysParallel() {
+        rateLimiter.acquire(RateLimits.TRANSFER, (long) ThreadLocalRandom.current().nextInt(USERS));
+    }
+
+}
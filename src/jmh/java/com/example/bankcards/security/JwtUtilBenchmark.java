@@ -0,0 +1,52 @@
+package com.example.bankcards.security;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Token issue and verification with the HS256 key from application.yml.
+ * {@code filterPath} is what JwtAuthenticationFilter does per request: it
+ * extracts the subject and validates the token, parsing it twice.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtUtilBenchmark {
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil("mySuperSecretKeyThatIsVeryLongForHmac", 3_600_000);
+        token = jwtUtil.generateToken("ivan.petrov");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtUtil.generateToken("ivan.petrov");
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtUtil.extractUsername(token);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public boolean filterPath() {
+        return jwtUtil.extractUsername(token) != null && jwtUtil.validateToken(token);
+    }
+
+}
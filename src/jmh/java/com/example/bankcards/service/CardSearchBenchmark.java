@@ -0,0 +1,161 @@
+package com.example.bankcards.service;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.bankcards.BankcardsApplication;
+import com.example.bankcards.dto.CardSearchFilter;
+import com.example.bankcards.dto.CardSearchResult;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.security.CustomUserDetails;
+
+/**
+ * CardService.searchCards against a real PostgreSQL seeded with {@code cards}
+ * synthetic rows (10M by default). Seeding is set-based and only tops the
+ * table up, so the first run is slow and later runs start immediately.
+ *
+ * Needs an empty database, by default {@code bankcards_bench} on localhost;
+ * override with {@code -Dbench.datasource.url=...}. Card numbers are seeded
+ * as NULL, so the figures exclude per-row decryption.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CardSearchBenchmark {
+
+    private static final int OWNERS = 100_000;
+    private static final int SEED_CHUNK = 1_000_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param("10000000")
+    private int cards;
+
+    private ConfigurableApplicationContext context;
+    private CardService cardService;
+    private long sampleOwnerId;
+    private UUID middleCursor;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BankcardsApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + System.getProperty("bench.datasource.url",
+                        "jdbc:postgresql://localhost:5432/bankcards_bench"),
+                        "--spring.jpa.show-sql=false",
+                        "--cards.expiry.cron=-",
+                        "--logging.level.com.example.bankcards=INFO");
+        cardService = context.getBean(CardService.class);
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        seed(jdbc);
+        sampleOwnerId = jdbc.queryForObject("SELECT min(id) FROM users WHERE username LIKE 'bench\\_%'", Long.class);
+        middleCursor = jdbc.queryForObject("SELECT id FROM cards ORDER BY id OFFSET ? LIMIT 1", UUID.class,
+                cards / 2);
+
+        User admin = User.builder().id(0L).username("bench_admin").role(Role.ADMIN).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken(new CustomUserDetails(admin), null, "ROLE_ADMIN"));
+    }
+
+    private void seed(JdbcTemplate jdbc) {
+        jdbc.update("""
+                INSERT INTO users (id, username, full_name, password, role)
+                SELECT nextval('users_seq'), 'bench_' || g, 'Bench User ' || g, 'x', 'USER'
+                FROM generate_series(1, ?) g
+                ON CONFLICT (username) DO NOTHING
+                """, OWNERS);
+
+        long existing = jdbc.queryForObject("SELECT count(*) FROM cards", Long.class);
+        for (long from = existing + 1; from <= cards; from += SEED_CHUNK) {
+            long to = Math.min(from + SEED_CHUNK - 1, cards);
+            jdbc.update("""
+                    INSERT INTO cards (id, owner_id, last4, expiry_year, expiry_month, status, balance)
+                    SELECT gen_random_uuid(), u.id, lpad((g % 10000)::text, 4, '0'), 2025 + g % 8, 1 + g % 12,
+                           CASE WHEN g % 20 = 0 THEN 'BLOCKED' WHEN g % 50 = 1 THEN 'EXPIRED' ELSE 'ACTIVE' END,
+                           (g % 1000000) / 100.0
+                    FROM generate_series(?, ?) g
+                    JOIN (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n
+                          FROM users WHERE username LIKE 'bench\\_%') u ON u.n = g % ?
+                    """, from, to, OWNERS);
+        }
+        jdbc.execute("ANALYZE cards");
+        jdbc.execute("ANALYZE users");
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    @Benchmark
+    public CardSearchResult noFilter() {
+        return search(filter(null, null, null, null, null), null);
+    }
+
+    @Benchmark
+    public CardSearchResult noFilterNextPage() {
+        return search(filter(null, null, null, null, null), middleCursor);
+    }
+
+    @Benchmark
+    public CardSearchResult byStatus() {
+        return search(filter(CardStatus.BLOCKED, null, null, null, null), null);
+    }
+
+    @Benchmark
+    public CardSearchResult byStatusNextPage() {
+        return search(filter(CardStatus.EXPIRED, null, null, null, null), middleCursor);
+    }
+
+    @Benchmark
+    public CardSearchResult byOwner() {
+        return search(filter(null, sampleOwnerId, null, null, null), null);
+    }
+
+    @Benchmark
+    public CardSearchResult byLast4() {
+        return search(filter(null, null, "4242", null, null), null);
+    }
+
+    @Benchmark
+    public CardSearchResult byBalanceRange() {
+        return search(filter(null, null, null, new BigDecimal("1000.00"), new BigDecimal("1000.10")), null);
+    }
+
+    @Benchmark
+    public CardSearchResult byStatusAndExpiry() {
+        return search(new CardSearchFilter(CardStatus.ACTIVE, null, null, YearMonth.of(2027, 3),
+                YearMonth.of(2027, 6), null, null), null);
+    }
+
+    private CardSearchResult search(CardSearchFilter filter, UUID after) {
+        return cardService.searchCards(filter, after, PAGE_SIZE);
+    }
+
+    private static CardSearchFilter filter(CardStatus status, Long ownerId, String last4, BigDecimal minBalance,
+            BigDecimal maxBalance) {
+        return new CardSearchFilter(status, ownerId, last4, null, null, minBalance, maxBalance);
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.example.bankcards.service;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.bankcards.cache.CardCache;
+import com.example.bankcards.config.CardCacheConfig;
+import com.example.bankcards.config.ConcurrencyConfig;
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.UserDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.CustomUserDetails;
+
+/**
+ * Entity to DTO mapping of a page, through the public service methods that do
+ * it: CardService.getUserCards and UserService.getAllUsers. Repositories are
+ * in-memory stubs returning already loaded pages, so the figures are the
+ * mapping plus the access check, without the query.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DtoMappingBenchmark {
+
+    private static final int CARDS_PER_USER = 3;
+
+    @Param({ "20", "100" })
+    private int pageSize;
+
+    private CardService cardService;
+    private UserService userService;
+    private Pageable pageable;
+
+    @Setup
+    public void setUp() {
+        pageable = PageRequest.of(0, pageSize);
+        User owner = user(10L);
+        List<Card> cards = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++)
+            cards.add(card(owner, i));
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            User user = user(100L + i);
+            for (int j = 0; j < CARDS_PER_USER; j++)
+                user.getCards().add(card(user, j));
+            users.add(user);
+        }
+        Page<Card> cardPage = new PageImpl<>(cards, pageable, 1000);
+        Page<User> userPage = new PageImpl<>(users, pageable, 1000);
+
+        CardRepository cardRepository = stub(CardRepository.class, "findByOwnerId", cardPage);
+        UserRepository userRepository = stub(UserRepository.class, "findAll", userPage);
+        cardService = new CardService(userRepository, cardRepository, new CardCache(new CardCacheConfig()), null,
+                new ConcurrencyConfig(), event -> {
+                });
+        userService = new UserService(userRepository, null, null, new ConcurrencyConfig(), event -> {
+        }, null);
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken(new CustomUserDetails(owner), null, "ROLE_USER"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public Page<CardDto> cardPage() {
+        return cardService.getUserCards(10L, pageable);
+    }
+
+    @Benchmark
+    public Page<UserDto> userPage() {
+        return userService.getAllUsers(pageable);
+    }
+
+    private static User user(Long id) {
+        return User.builder().id(id).username("user" + id).fullName("Ivan Petrovich Sidorov " + id).role(Role.USER)
+                .cards(new ArrayList<>()).build();
+    }
+
+    private static Card card(User owner, int i) {
+        Card card = new Card();
+        card.setId(UUID.randomUUID());
+        card.setOwner(owner);
+        card.setPlainNumber(String.format("4276%012d", owner.getId() * 1000 + i));
+        card.setExpiryYear(2030);
+        card.setExpiryMonth(1 + i % 12);
+        card.setStatus(CardStatus.ACTIVE);
+        card.setBalance(BigDecimal.valueOf(12_345_67L + i, 2));
+        return card;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, String methodName, Object result) {
+        return (T) Proxy.newProxyInstance(DtoMappingBenchmark.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    if (method.getName().equals(methodName))
+                        return result;
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+}
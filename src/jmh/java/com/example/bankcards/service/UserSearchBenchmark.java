@@ -0,0 +1,146 @@
+package com.example.bankcards.service;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.bankcards.BankcardsApplication;
+import com.example.bankcards.dto.UserSearchResult;
+import com.example.bankcards.search.UserNameIndex;
+
+/**
+ * UserService.searchUsers and suggestFullNames against a real PostgreSQL
+ * seeded with {@code users} synthetic users (1M by default) over 30,000
+ * distinct full names, so every name is shared by about 33 users. Seeding
+ * only tops the table up, so the first run is slow and later runs start
+ * immediately.
+ *
+ * Targets with a local database: search p99 under 15 ms for any prefix and
+ * page depth, autocomplete p99 under 50 us. On one core the search measured
+ * p50 about 3 ms and p99 10-12 ms, the autocomplete p99 about 4 us.
+ *
+ * Uses {@code bankcards_bench} on localhost by default, like
+ * CardSearchBenchmark; override with {@code -Dbench.datasource.url=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class UserSearchBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int SUGGESTIONS = 10;
+
+    @Param("1000000")
+    private int users;
+
+    private ConfigurableApplicationContext context;
+    private UserService userService;
+    private Long broadCursor;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(BankcardsApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + System.getProperty("bench.datasource.url",
+                        "jdbc:postgresql://localhost:5432/bankcards_bench"),
+                        "--spring.jpa.show-sql=false",
+                        "--cards.expiry.cron=-",
+                        "--warmup.enabled=false",
+                        "--logging.level.com.example.bankcards=INFO");
+        userService = context.getBean(UserService.class);
+
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        seed(jdbc);
+        context.getBean(UserNameIndex.class).rebuild();
+        // Half way through the users whose names start with "a"
+        broadCursor = jdbc.queryForObject("""
+                SELECT id FROM users WHERE full_name_normalized >= 'a' AND full_name_normalized < 'b'
+                ORDER BY full_name_normalized, id
+                OFFSET (SELECT count(*) / 2 FROM users WHERE full_name_normalized >= 'a' AND full_name_normalized < 'b')
+                LIMIT 1
+                """, Long.class);
+    }
+
+    // Latin names, so lower() in SQL gives the same key as FullNames.normalize
+    private void seed(JdbcTemplate jdbc) {
+        jdbc.update("""
+                INSERT INTO users (id, username, full_name, full_name_normalized, password, role)
+                SELECT nextval('users_seq'), 'search_' || g, n.full_name, lower(n.full_name), 'x', 'USER'
+                FROM generate_series(1, ?) g
+                CROSS JOIN LATERAL (SELECT
+                    (ARRAY['Ivan','Petr','Sergey','Alexey','Dmitry','Andrey','Nikolay','Mikhail','Pavel','Oleg',
+                           'Anna','Maria','Elena','Olga','Natalia','Irina','Tatiana','Svetlana','Yulia','Ekaterina',
+                           'Artem','Maxim','Egor','Kirill','Roman','Denis','Anton','Boris','Viktor','Yuri'])[1 + g % 30]
+                    || ' ' ||
+                    (ARRAY['Ivanov','Petrov','Sidorov','Smirnov','Kuznetsov','Popov','Vasiliev','Sokolov',
+                           'Mikhailov','Novikov','Fedorov','Morozov','Volkov','Alekseev','Lebedev','Semenov',
+                           'Egorov','Pavlov','Kozlov','Stepanov','Nikolaev','Orlov','Andreev','Makarov','Nikitin',
+                           'Zakharov','Zaitsev','Soloviev','Borisov','Yakovlev','Grigoriev','Romanov','Vorobiev',
+                           'Sergeev','Kuzmin','Frolov','Alexandrov','Dmitriev','Korolev','Gusev'])[1 + (g / 30) % 40]
+                    || ' ' ||
+                    (ARRAY['Ivanovich','Petrovich','Sergeevich','Alexeevich','Dmitrievich','Andreevich',
+                           'Nikolaevich','Mikhailovich','Pavlovich','Olegovich','Borisovich','Viktorovich',
+                           'Yurievich','Romanovich','Denisovich','Antonovich','Egorovich','Kirillovich',
+                           'Maximovich','Artemovich','Fedorovich','Grigorievich','Stepanovich','Vasilievich',
+                           'Konstantinovich'])[1 + (g / 1200) % 25] AS full_name) n
+                ON CONFLICT (username) DO NOTHING
+                """, users);
+        jdbc.execute("ANALYZE users");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    // About 33 users share the name
+    @Benchmark
+    public UserSearchResult searchFullName() {
+        return userService.searchUsers("Ivan Ivanov Sergeevich", null, PAGE_SIZE);
+    }
+
+    // One user in 30 matches
+    @Benchmark
+    public UserSearchResult searchFirstName() {
+        return userService.searchUsers("Oleg", null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public UserSearchResult searchOneLetter() {
+        return userService.searchUsers("a", null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public UserSearchResult searchOneLetterDeepPage() {
+        return userService.searchUsers("a", broadCursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public UserSearchResult searchNoMatch() {
+        return userService.searchUsers("Zzz", null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<String> autocompleteOneLetter() {
+        return userService.suggestFullNames("a", SUGGESTIONS);
+    }
+
+    @Benchmark
+    public List<String> autocompleteFirstAndLastName() {
+        return userService.suggestFullNames("ivan pe", SUGGESTIONS);
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.example.bankcards.util;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.bankcards.config.EncryptionConfig;
+
+/**
+ * Card number column encryption and decryption as Hibernate calls them, with
+ * the key and algorithm from application.yml. Cycles through 1024 distinct
+ * numbers so the figures are not for a single hot input.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CardNumberConverterBenchmark {
+
+    private static final int NUMBERS = 1024;
+
+    private CardNumberConverter converter;
+    private String[] plain;
+    private String[] encrypted;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        EncryptionConfig config = new EncryptionConfig();
+        config.setAlgorithm("AES");
+        config.setSecretKey("MySuperSecretKey");
+        CardNumberConverter.setStaticConfig(config);
+        converter = new CardNumberConverter();
+
+        Random random = new Random(42);
+        plain = new String[NUMBERS];
+        encrypted = new String[NUMBERS];
+        for (int i = 0; i < NUMBERS; i++) {
+            plain[i] = String.format("4%015d", random.nextLong(1_000_000_000_000_000L));
+            encrypted[i] = converter.convertToDatabaseColumn(plain[i]);
+        }
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return converter.convertToDatabaseColumn(plain[next++ & (NUMBERS - 1)]);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return converter.convertToEntityAttribute(encrypted[next++ & (NUMBERS - 1)]);
+    }
+
+}
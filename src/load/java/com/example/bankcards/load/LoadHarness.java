@@ -0,0 +1,155 @@
+package com.example.bankcards.load;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.bankcards.BankcardsApplication;
+import com.example.bankcards.security.JwtUtil;
+import com.example.bankcards.service.BalanceSummaryService;
+import com.example.bankcards.util.CardNumberConverter;
+
+/**
+ * End-to-end load run on one machine: boots the application on a random port
+ * against a local PostgreSQL, tops it up to {@code users} synthetic users and
+ * {@code cards} cards, then drives a mixed open-loop workload at {@code rps}
+ * and prints latency percentiles, throughput and errors per endpoint.
+ * <pre>
+ * mvn -Pload test-compile exec:exec -Dload.args="users=1000 cards=10000 rps=100 duration=60"
+ * </pre>
+ * Options ({@code key=value}, defaults in brackets): {@code url}
+ * [jdbc:postgresql://localhost:5432/bankcards_load], {@code users} [1000],
+ * {@code cards} [10000], {@code rps} [100], {@code warmup} [15, seconds],
+ * {@code duration} [60, seconds], {@code mix} [login:1,card:50,list:34,transfer:15].
+ * Arguments starting with {@code --} go to the application, e.g.
+ * {@code --rate-limit.enabled=true}. Every login costs a BCrypt hash (strength 12,
+ * a few hundred milliseconds of CPU), so the login share bounds what one core
+ * can serve.
+ *
+ * The first {@code warmup} seconds are reported on their own as the cold
+ * start; {@code --warmup.enabled=false} shows the same window without the
+ * application's startup warm-up.
+ *
+ * Needs its own database: seeding is set-based and only adds what is missing,
+ * so the first run is slow and later runs start immediately. The generator
+ * shares the machine with the server; on few cores, read the figures as
+ * relative, not absolute.
+ */
+public final class LoadHarness {
+
+    static final String PASSWORD = "load-password";
+    private static final int NUMBER_POOL = 1_000;
+    private static final int SEED_CHUNK = 1_000_000;
+
+    private LoadHarness() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(Map.of(
+                "url", "jdbc:postgresql://localhost:5432/bankcards_load",
+                "users", "1000",
+                "cards", "10000",
+                "rps", "100",
+                "warmup", "15",
+                "duration", "60",
+                "mix", "login:1,card:50,list:34,transfer:15"));
+        List<String> applicationArgs = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--spring.jpa.show-sql=false",
+                "--cards.expiry.cron=-",
+                "--rate-limit.enabled=false",
+                "--logging.level.com.example.bankcards=INFO"));
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                applicationArgs.add(arg);
+            } else if (arg.contains("=")) {
+                String[] option = arg.split("=", 2);
+                if (!options.containsKey(option[0]))
+                    throw new IllegalArgumentException("Unknown option: " + option[0]);
+                options.put(option[0], option[1]);
+            } else {
+                throw new IllegalArgumentException("Expected key=value or --property=value: " + arg);
+            }
+        }
+        applicationArgs.add(0, "--spring.datasource.url=" + options.get("url"));
+        int users = Integer.parseInt(options.get("users"));
+        int cards = Integer.parseInt(options.get("cards"));
+        if (cards < 2 * users)
+            throw new IllegalArgumentException("Transfers need at least two cards per user");
+
+        // devtools is on the test classpath; its restart would boot the application twice
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BankcardsApplication.class)
+                .run(applicationArgs.toArray(String[]::new))) {
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+            long started = System.nanoTime();
+            seed(jdbc, context, users, cards);
+            context.getBean(BalanceSummaryService.class).rebuild();
+            System.out.printf("Seeded %d users and %d cards in %.1fs%n", users, cards,
+                    (System.nanoTime() - started) / 1e9);
+
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            LoadWorkload workload = LoadWorkload.load(jdbc, context.getBean(JwtUtil.class),
+                    "http://localhost:" + port, options.get("mix"));
+            List<OpenLoopLoad.Report> reports = new OpenLoopLoad(workload, Integer.parseInt(options.get("rps")),
+                    Integer.parseInt(options.get("warmup")), Integer.parseInt(options.get("duration"))).run();
+            reports.forEach(report -> report.print(System.out));
+        }
+    }
+
+    // Users share one BCrypt hash and cards draw from a pool of pre-encrypted numbers, so
+    // seeding costs a handful of hashes and encryptions however many rows it writes
+    private static void seed(JdbcTemplate jdbc, ConfigurableApplicationContext context, int users, int cards) {
+        jdbc.update("""
+                INSERT INTO users (id, username, full_name, full_name_normalized, password, role)
+                SELECT nextval('users_seq'), 'load_' || g, 'Load User ' || g, 'load user ' || g, ?, 'USER'
+                FROM generate_series(1, ?) g
+                ON CONFLICT (username) DO NOTHING
+                """, context.getBean(PasswordEncoder.class).encode(PASSWORD), users);
+
+        long existing = jdbc.queryForObject("""
+                SELECT count(*) FROM cards c JOIN users u ON u.id = c.owner_id WHERE u.username LIKE 'load\\_%'
+                """, Long.class);
+        if (existing >= cards)
+            return;
+
+        CardNumberConverter converter = context.getAutowireCapableBeanFactory().createBean(CardNumberConverter.class);
+        String[] numbers = new String[NUMBER_POOL];
+        String[] last4 = new String[NUMBER_POOL];
+        for (int i = 0; i < NUMBER_POOL; i++) {
+            String number = String.format("4000%012d", i * 7_919L);
+            numbers[i] = converter.convertToDatabaseColumn(number);
+            last4[i] = number.substring(12);
+        }
+        for (long from = existing + 1; from <= cards; from += SEED_CHUNK) {
+            long to = Math.min(from + SEED_CHUNK - 1, cards);
+            long chunkFrom = from;
+            jdbc.update("""
+                    INSERT INTO cards (id, owner_id, number_encrypted, last4, expiry_year, expiry_month, status,
+                                       balance, version)
+                    SELECT gen_random_uuid(), u.id, (?::text[])[g % ? + 1], (?::text[])[g % ? + 1],
+                           2030 + g % 5, 1 + g % 12, 'ACTIVE', 1000000.00, 0
+                    FROM generate_series(?, ?) g
+                    JOIN (SELECT id, row_number() OVER (ORDER BY id) - 1 AS n
+                          FROM users WHERE username LIKE 'load\\_%') u ON u.n = g % ?
+                    """, ps -> {
+                ps.setArray(1, ps.getConnection().createArrayOf("text", numbers));
+                ps.setInt(2, NUMBER_POOL);
+                ps.setArray(3, ps.getConnection().createArrayOf("text", last4));
+                ps.setInt(4, NUMBER_POOL);
+                ps.setLong(5, chunkFrom);
+                ps.setLong(6, to);
+                ps.setInt(7, users);
+            });
+        }
+        jdbc.execute("ANALYZE cards");
+        jdbc.execute("ANALYZE users");
+    }
+
+}
@@ -0,0 +1,155 @@
+package com.example.bankcards.load;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.bankcards.security.JwtUtil;
+
+/**
+ * The request mix: each request picks a seeded user at random, then an
+ * endpoint by weight. Tokens are minted up front, so the login share is the
+ * only BCrypt work in the run.
+ */
+final class LoadWorkload {
+
+    enum Endpoint {
+        LOGIN("login", "POST /api/auth/login"),
+        CARD("card", "GET /api/cards/{cardId}"),
+        LIST("list", "GET /api/cards/user/{userId}"),
+        TRANSFER("transfer", "POST /api/cards/transfer");
+
+        final String key;
+        final String label;
+
+        Endpoint(String key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+
+    }
+
+    record Request(Endpoint endpoint, HttpRequest http) {
+    }
+
+    private record LoadUser(long id, String username, String token, UUID[] cards) {
+    }
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+    private static final int PAGE_SIZE = 10;
+
+    private final String baseUrl;
+    private final List<LoadUser> users;
+    private final Endpoint[] endpoints;
+    private final int[] cumulativeWeights;
+
+    private LoadWorkload(String baseUrl, List<LoadUser> users, Map<Endpoint, Integer> mix) {
+        this.baseUrl = baseUrl;
+        this.users = users;
+        this.endpoints = mix.keySet().toArray(Endpoint[]::new);
+        this.cumulativeWeights = new int[endpoints.length];
+        int total = 0;
+        for (int i = 0; i < endpoints.length; i++) {
+            total += mix.get(endpoints[i]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    static LoadWorkload load(JdbcTemplate jdbc, JwtUtil jwtUtil, String baseUrl, String mix) {
+        Map<Long, List<UUID>> cardsByOwner = new LinkedHashMap<>();
+        Map<Long, String> usernames = new LinkedHashMap<>();
+        jdbc.query("""
+                SELECT u.id, u.username, c.id AS card_id
+                FROM users u JOIN cards c ON c.owner_id = u.id
+                WHERE u.username LIKE 'load\\_%'
+                ORDER BY u.id
+                """, rs -> {
+            long ownerId = rs.getLong("id");
+            usernames.putIfAbsent(ownerId, rs.getString("username"));
+            cardsByOwner.computeIfAbsent(ownerId, id -> new ArrayList<>()).add(rs.getObject("card_id", UUID.class));
+        });
+        List<LoadUser> users = new ArrayList<>();
+        cardsByOwner.forEach((id, cards) -> {
+            if (cards.size() >= 2) {
+                String username = usernames.get(id);
+                users.add(new LoadUser(id, username, jwtUtil.generateToken(username), cards.toArray(UUID[]::new)));
+            }
+        });
+        if (users.isEmpty())
+            throw new IllegalStateException("No seeded user owns two cards");
+        return new LoadWorkload(baseUrl, users, parseMix(mix));
+    }
+
+    // "login:2,card:50,list:33,transfer:15"
+    static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] keyAndWeight = part.trim().split(":", 2);
+            Endpoint endpoint = null;
+            for (Endpoint candidate : Endpoint.values()) {
+                if (candidate.key.equals(keyAndWeight[0]))
+                    endpoint = candidate;
+            }
+            if (endpoint == null || keyAndWeight.length != 2)
+                throw new IllegalArgumentException("Bad mix entry: " + part);
+            int weight = Integer.parseInt(keyAndWeight[1]);
+            if (weight > 0)
+                weights.put(endpoint, weight);
+        }
+        if (weights.isEmpty())
+            throw new IllegalArgumentException("Empty mix: " + mix);
+        return weights;
+    }
+
+    int userCount() {
+        return users.size();
+    }
+
+    Request next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        LoadUser user = users.get(random.nextInt(users.size()));
+        int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = 0;
+        while (roll >= cumulativeWeights[index])
+            index++;
+        Endpoint endpoint = endpoints[index];
+        return new Request(endpoint, switch (endpoint) {
+            case LOGIN -> HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                    .timeout(TIMEOUT)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(
+                            "{\"username\":\"" + user.username() + "\",\"password\":\"" + LoadHarness.PASSWORD + "\"}"))
+                    .build();
+            case CARD -> authorized(user, "/api/cards/" + user.cards()[random.nextInt(user.cards().length)])
+                    .GET()
+                    .build();
+            case LIST -> authorized(user, "/api/cards/user/" + user.id() + "?size=" + PAGE_SIZE + "&page="
+                    + random.nextInt((user.cards().length + PAGE_SIZE - 1) / PAGE_SIZE))
+                    .GET()
+                    .build();
+            case TRANSFER -> {
+                int from = random.nextInt(user.cards().length);
+                int to = (from + 1 + random.nextInt(user.cards().length - 1)) % user.cards().length;
+                yield authorized(user, "/api/cards/transfer?fromCardId=" + user.cards()[from] + "&toCardId="
+                        + user.cards()[to] + "&amount=0.01")
+                        .POST(HttpRequest.BodyPublishers.noBody())
+                        .build();
+            }
+        });
+    }
+
+    private HttpRequest.Builder authorized(LoadUser user, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(TIMEOUT)
+                .header("Authorization", "Bearer " + user.token());
+    }
+
+}
@@ -0,0 +1,214 @@
+package com.example.bankcards.load;
+
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import com.example.bankcards.load.LoadWorkload.Endpoint;
+
+/**
+ * Sends requests on a fixed schedule whatever the server's pace, and measures
+ * each latency from the scheduled send time, so a stalled server shows up in
+ * the percentiles instead of quietly lowering the offered load. Requests
+ * beyond {@link #MAX_IN_FLIGHT} outstanding are not sent and count as
+ * "dropped" errors. The warm-up window is reported separately as the cold
+ * start, before the measured window.
+ */
+final class OpenLoopLoad {
+
+    private static final int MAX_IN_FLIGHT = 2_000;
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(35);
+
+    private final LoadWorkload workload;
+    private final int rps;
+    private final Duration warmup;
+    private final Duration duration;
+
+    OpenLoopLoad(LoadWorkload workload, int rps, int warmupSeconds, int durationSeconds) {
+        this.workload = workload;
+        this.rps = rps;
+        this.warmup = Duration.ofSeconds(warmupSeconds);
+        this.duration = Duration.ofSeconds(durationSeconds);
+    }
+
+    List<Report> run() throws InterruptedException {
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(2);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .executor(clientExecutor)
+                .build();
+        Map<Endpoint, Samples> coldSamples = samples();
+        Map<Endpoint, Samples> samples = samples();
+        AtomicInteger inFlight = new AtomicInteger();
+
+        System.out.printf("%d users, %d req/s, %ds warm-up, %ds measured%n", workload.userCount(), rps,
+                warmup.toSeconds(), duration.toSeconds());
+        long period = TimeUnit.SECONDS.toNanos(1) / rps;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        for (long i = 0;; i++) {
+            long scheduledAt = start + i * period;
+            if (scheduledAt >= end)
+                break;
+            long wait = scheduledAt - System.nanoTime();
+            if (wait > 0)
+                LockSupport.parkNanos(wait);
+
+            LoadWorkload.Request request = workload.next();
+            Samples endpointSamples = (scheduledAt >= measureFrom ? samples : coldSamples).get(request.endpoint());
+            if (inFlight.get() >= MAX_IN_FLIGHT) {
+                endpointSamples.error("dropped");
+                continue;
+            }
+            inFlight.incrementAndGet();
+            client.sendAsync(request.http(), HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, failure) -> {
+                        long latency = System.nanoTime() - scheduledAt;
+                        if (failure != null)
+                            endpointSamples.error(cause(failure).getClass().getSimpleName());
+                        else if (response.statusCode() / 100 != 2)
+                            endpointSamples.error(String.valueOf(response.statusCode()));
+                        else
+                            endpointSamples.success(latency);
+                        inFlight.decrementAndGet();
+                    });
+        }
+
+        long drainUntil = System.nanoTime() + DRAIN_TIMEOUT.toNanos();
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil)
+            Thread.sleep(50);
+        clientExecutor.shutdownNow();
+
+        return List.of(new Report("cold start", rps, warmup, stats(coldSamples)),
+                new Report("measured", rps, duration, stats(samples)));
+    }
+
+    private static Map<Endpoint, Samples> samples() {
+        Map<Endpoint, Samples> samples = new EnumMap<>(Endpoint.class);
+        for (Endpoint endpoint : Endpoint.values())
+            samples.put(endpoint, new Samples());
+        return samples;
+    }
+
+    private static Map<Endpoint, Stats> stats(Map<Endpoint, Samples> samples) {
+        Map<Endpoint, Stats> stats = new EnumMap<>(Endpoint.class);
+        samples.forEach((endpoint, s) -> {
+            if (s.attempts() > 0)
+                stats.put(endpoint, s.snapshot());
+        });
+        return stats;
+    }
+
+    private static Throwable cause(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    private static final class Samples {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private final Map<String, Long> errors = new TreeMap<>();
+
+        synchronized void success(long latencyNanos) {
+            if (count == latencies.length)
+                latencies = Arrays.copyOf(latencies, count * 2);
+            latencies[count++] = latencyNanos;
+        }
+
+        synchronized void error(String cause) {
+            errors.merge(cause, 1L, Long::sum);
+        }
+
+        synchronized long attempts() {
+            return count + errors.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        synchronized Stats snapshot() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new Stats(sorted, new TreeMap<>(errors));
+        }
+
+    }
+
+    record Stats(long[] sortedNanos, Map<String, Long> errors) {
+
+        long successes() {
+            return sortedNanos.length;
+        }
+
+        long failures() {
+            return errors.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        double percentileMs(double p) {
+            if (sortedNanos.length == 0)
+                return Double.NaN;
+            return sortedNanos[(int) Math.max(0, Math.ceil(p * sortedNanos.length) - 1)] / 1e6;
+        }
+
+        double maxMs() {
+            return sortedNanos.length == 0 ? Double.NaN : sortedNanos[sortedNanos.length - 1] / 1e6;
+        }
+
+    }
+
+    record Report(String title, int targetRps, Duration duration, Map<Endpoint, Stats> stats) {
+
+        void print(PrintStream out) {
+            if (stats.isEmpty())
+                return;
+            double seconds = duration.toSeconds();
+            out.printf("%n%s, %ds%n", title, duration.toSeconds());
+            out.printf("%-30s %9s %9s %8s %9s %9s %9s %9s  %s%n", "endpoint", "requests", "ok/s", "errors %",
+                    "p50 ms", "p95 ms", "p99 ms", "max ms", "errors");
+            long[] all = new long[0];
+            long requests = 0;
+            long failures = 0;
+            Map<String, Long> allErrors = new TreeMap<>();
+            for (Map.Entry<Endpoint, Stats> entry : stats.entrySet()) {
+                Stats s = entry.getValue();
+                row(out, entry.getKey().label, s, seconds);
+                all = concat(all, s.sortedNanos());
+                requests += s.successes() + s.failures();
+                failures += s.failures();
+                s.errors().forEach((cause, count) -> allErrors.merge(cause, count, Long::sum));
+            }
+            Arrays.sort(all);
+            row(out, "total", new Stats(all, allErrors), seconds);
+            out.printf("offered %.1f req/s of %d target%n", requests / seconds, targetRps);
+            if (failures > 0)
+                out.printf("error rate %.2f%%%n", 100.0 * failures / requests);
+        }
+
+        private static void row(PrintStream out, String label, Stats s, double seconds) {
+            long requests = s.successes() + s.failures();
+            out.printf("%-30s %9d %9.1f %8.2f %9.2f %9.2f %9.2f %9.2f  %s%n", label, requests,
+                    s.successes() / seconds, requests == 0 ? 0.0 : 100.0 * s.failures() / requests,
+                    s.percentileMs(0.50), s.percentileMs(0.95), s.percentileMs(0.99), s.maxMs(),
+                    s.errors().isEmpty() ? "" : s.errors());
+        }
+
+        private static long[] concat(long[] a, long[] b) {
+            long[] result = Arrays.copyOf(a, a.length + b.length);
+            System.arraycopy(b, 0, result, a.length, b.length);
+            return result;
+        }
+
+    }
+
+}
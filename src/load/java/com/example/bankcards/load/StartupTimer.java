@@ -0,0 +1,156 @@
+package com.example.bankcards.load;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Starts the application {@code runs} times and measures, from process launch,
+ * when the context reported itself started, when {@code url} first answered
+ * 200, and how long the first {@code then} request took after that, plus the
+ * process's resident memory at the end. The command must be the server
+ * process itself, not a wrapper script. Depends only on the JDK:
+ * <pre>
+ * java src/load/java/com/example/bankcards/load/StartupTimer.java runs=5 then=http://localhost:8080/v3/api-docs -- \
+ *     java -XX:SharedArchiveFile=target/application/application.jsa -Dspring.aot.enabled=true \
+ *          -jar target/application/bank_rest-1.0.0.jar --spring.profiles.active=fast-start
+ * </pre>
+ * Defaults: {@code runs=5}, {@code url=http://localhost:8080/actuator/health},
+ * no {@code then}. Each run is stopped before the next one starts.
+ */
+public final class StartupTimer {
+
+    private static final Pattern STARTED = Pattern.compile("Started \\S+ in [0-9.]+ seconds");
+    private static final Duration TIMEOUT = Duration.ofMinutes(3);
+
+    private StartupTimer() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        int separator = Arrays.asList(args).indexOf("--");
+        if (separator < 0 || separator == args.length - 1) {
+            System.err.println("Usage: StartupTimer [runs=N] [url=...] [then=...] -- <command...>");
+            System.exit(2);
+        }
+        int runs = 5;
+        URI ready = URI.create("http://localhost:8080/actuator/health");
+        URI then = null;
+        for (String option : Arrays.copyOf(args, separator)) {
+            String[] keyAndValue = option.split("=", 2);
+            switch (keyAndValue[0]) {
+                case "runs" -> runs = Integer.parseInt(keyAndValue[1]);
+                case "url" -> ready = URI.create(keyAndValue[1]);
+                case "then" -> then = URI.create(keyAndValue[1]);
+                default -> throw new IllegalArgumentException("Unknown option: " + option);
+            }
+        }
+        List<String> command = List.of(Arrays.copyOfRange(args, separator + 1, args.length));
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+
+        System.out.printf("%4s %12s %12s %14s %10s%n", "run", "started ms", "ready ms", "first then ms", "rss MB");
+        List<double[]> results = new ArrayList<>();
+        for (int run = 1; run <= runs; run++) {
+            double[] result = measure(command, client, ready, then);
+            results.add(result);
+            System.out.printf("%4d %12.0f %12.0f %14.0f %10.1f%n", run, result[0], result[1], result[2], result[3]);
+        }
+        System.out.printf("%4s %12.0f %12.0f %14.0f %10.1f%n", "p50", median(results, 0), median(results, 1),
+                median(results, 2), median(results, 3));
+    }
+
+    // {context started, url answered 200, then request} in milliseconds and RSS in MB; NaN where not measured
+    private static double[] measure(List<String> command, HttpClient client, URI ready, URI then)
+            throws Exception {
+        long launched = System.nanoTime();
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        CompletableFuture<Double> started = new CompletableFuture<>();
+        Thread output = new Thread(() -> drain(process, launched, started));
+        output.setDaemon(true);
+        output.start();
+        try {
+            double readyMillis = Double.NaN;
+            long deadline = launched + TIMEOUT.toNanos();
+            while (System.nanoTime() < deadline && process.isAlive()) {
+                if (status(client, ready) == 200) {
+                    readyMillis = (System.nanoTime() - launched) / 1e6;
+                    break;
+                }
+                Thread.sleep(20);
+            }
+            if (Double.isNaN(readyMillis))
+                throw new IllegalStateException("No 200 from " + ready + "; exit code "
+                        + (process.isAlive() ? "none" : process.exitValue()));
+
+            double thenMillis = Double.NaN;
+            if (then != null) {
+                long sent = System.nanoTime();
+                int status = status(client, then);
+                thenMillis = (System.nanoTime() - sent) / 1e6;
+                if (status != 200)
+                    System.err.printf("%s answered %d%n", then, status);
+            }
+            return new double[] { started.getNow(Double.NaN), readyMillis, thenMillis, rssMb(process.pid()) };
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS))
+                process.destroyForcibly().waitFor();
+        }
+    }
+
+    // Reads the whole output so the child never blocks on a full pipe
+    private static void drain(Process process, long launched, CompletableFuture<Double> started) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                Matcher matcher = STARTED.matcher(line);
+                if (!started.isDone() && matcher.find())
+                    started.complete((System.nanoTime() - launched) / 1e6);
+            }
+        } catch (IOException e) {
+            // process stopped
+        }
+        started.complete(Double.NaN);
+    }
+
+    private static double rssMb(long pid) {
+        try {
+            return Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status")).stream()
+                    .filter(line -> line.startsWith("VmRSS:"))
+                    .mapToDouble(line -> Long.parseLong(line.substring(6).trim().split("\\s+")[0]) / 1024.0)
+                    .findFirst()
+                    .orElse(Double.NaN);
+        } catch (IOException e) {
+            return Double.NaN;
+        }
+    }
+
+    private static int status(HttpClient client, URI uri) throws InterruptedException {
+        try {
+            return client.send(HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(30)).build(),
+                    HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static double median(List<double[]> results, int column) {
+        double[] values = results.stream().mapToDouble(r -> r[column]).filter(v -> !Double.isNaN(v)).sorted()
+                .toArray();
+        return values.length == 0 ? Double.NaN : values[values.length / 2];
+    }
+
+}
@@ -3,7 +3,8 @@ package com.example.bankcards;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 
-@SpringBootApplication
+// The reactive profile puts R2DBC on the classpath; its ConnectionFactory would switch off the JDBC DataSource
+@SpringBootApplication(excludeName = "org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration")
 public class BankcardsApplication {
     public static void main(String[] args) {
         SpringApplication.run(BankcardsApplication.class, args);
@@ -0,0 +1,85 @@
+package com.example.bankcards.cache;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.bankcards.config.CardCacheConfig;
+import com.example.bankcards.event.CardChangedEvent;
+import com.example.bankcards.event.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+// Evictions run after commit. A load racing with an eviction of the same key is
+// safe: Caffeine blocks the eviction until the load finishes, then drops it.
+@Component
+public class CardCache implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CardCache.class);
+
+    private final Cache<UUID, CardSnapshot> cache;
+
+    public CardCache(CardCacheConfig config) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaximumSize())
+                .expireAfterWrite(config.getTtl())
+                .recordStats()
+                .build();
+    }
+
+    public CardSnapshot get(UUID cardId, Function<UUID, CardSnapshot> loader) {
+        return cache.get(cardId, loader);
+    }
+
+    // Misses are loaded together in one call; ids the loader does not return are left out
+    public Map<UUID, CardSnapshot> getAll(Collection<UUID> cardIds,
+            Function<Set<? extends UUID>, Map<UUID, CardSnapshot>> loader) {
+        return cache.getAll(cardIds, loader);
+    }
+
+    public void evict(UUID cardId) {
+        cache.invalidate(cardId);
+    }
+
+    public void evictOwner(Long ownerId) {
+        cache.asMap().values().removeIf(snapshot -> snapshot.ownerId().equals(ownerId));
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCardChanged(CardChangedEvent event) {
+        evict(event.cardId());
+        logger.debug("Card evicted from cache: {}", event.cardId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        evictOwner(event.userId());
+        logger.debug("Cards of user {} evicted from cache", event.userId());
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "cards");
+    }
+
+}
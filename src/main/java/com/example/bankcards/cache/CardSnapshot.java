@@ -0,0 +1,7 @@
+package com.example.bankcards.cache;
+
+import com.example.bankcards.dto.CardDto;
+
+public record CardSnapshot(CardDto card, Long ownerId, String etag) {
+
+}
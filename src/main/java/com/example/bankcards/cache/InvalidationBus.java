@@ -0,0 +1,149 @@
+package com.example.bankcards.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.bankcards.config.InvalidationConfig;
+import com.example.bankcards.event.CardChangedEvent;
+import com.example.bankcards.event.UserChangedEvent;
+import com.example.bankcards.stream.CardStreamMessage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Publishes committed card/user changes to the other nodes via Postgres NOTIFY.
+// Keys are coalesced in a set and flushed periodically, packed into as few
+// notifications as the payload limit allows. Payload: "<nodeId>|c:<uuid>,u:<id>".
+// Card stream events ride along in commit order, uncoalesced, as
+// "s:<ownerId>:<event>:<base64url data>", so every node can fan them out.
+@Component
+@ConditionalOnProperty(prefix = "cache.invalidation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class InvalidationBus {
+
+    static final String CARD_PREFIX = "c:";
+    static final String USER_PREFIX = "u:";
+    static final String STREAM_PREFIX = "s:";
+    static final String ALL = "*";
+
+    private static final Logger logger = LoggerFactory.getLogger(InvalidationBus.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InvalidationConfig config;
+    private final String nodeId = UUID.randomUUID().toString().substring(0, 8);
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+    private final Queue<String> pendingStream = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingStreamSize = new AtomicInteger();
+    private final Counter notifications;
+    private final Counter streamDropped;
+
+    public InvalidationBus(JdbcTemplate jdbcTemplate, InvalidationConfig config, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.config = config;
+        this.notifications = meterRegistry.counter("cache.invalidation.notifications", "direction", "sent");
+        this.streamDropped = meterRegistry.counter("cards.stream.relay.dropped");
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCardChanged(CardChangedEvent event) {
+        enqueue(CARD_PREFIX + event.cardId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        enqueue(USER_PREFIX + event.userId());
+    }
+
+    // Published after commit by CardStreamRegistry, so a plain listener is enough
+    @EventListener
+    public void onCardStreamMessage(CardStreamMessage message) {
+        String key = STREAM_PREFIX + message.ownerId() + ':' + message.event() + ':'
+                + Base64.getUrlEncoder().withoutPadding()
+                        .encodeToString(message.data().getBytes(StandardCharsets.UTF_8));
+        // Stream events are best effort; clients reload on reconnect
+        if (nodeId.length() + key.length() + 1 > config.getMaxPayloadBytes()) {
+            streamDropped.increment();
+            return;
+        }
+        if (pendingStreamSize.incrementAndGet() > config.getMaxPending()) {
+            pendingStreamSize.decrementAndGet();
+            streamDropped.increment();
+            return;
+        }
+        pendingStream.add(key);
+    }
+
+    void enqueue(String key) {
+        if (pending.size() >= config.getMaxPending()) {
+            // Under an extreme burst a single "evict everything" is cheaper than the keys
+            pending.clear();
+            pending.add(ALL);
+            return;
+        }
+        pending.add(key);
+    }
+
+    @Scheduled(fixedDelayString = "${cache.invalidation.flush-interval-ms:50}")
+    public void flush() {
+        if (pending.isEmpty() && pendingStream.isEmpty())
+            return;
+
+        StringBuilder payload = new StringBuilder(config.getMaxPayloadBytes()).append(nodeId).append('|');
+        int headerLength = payload.length();
+
+        Iterator<String> keys = pending.iterator();
+        while (keys.hasNext()) {
+            String key = keys.next();
+            keys.remove();
+            append(payload, headerLength, key);
+        }
+        String streamKey;
+        while ((streamKey = pendingStream.poll()) != null) {
+            pendingStreamSize.decrementAndGet();
+            append(payload, headerLength, streamKey);
+        }
+        if (payload.length() > headerLength)
+            send(payload.toString());
+    }
+
+    private void append(StringBuilder payload, int headerLength, String key) {
+        if (payload.length() + key.length() + 1 > config.getMaxPayloadBytes()) {
+            send(payload.toString());
+            payload.setLength(headerLength);
+        }
+        if (payload.length() > headerLength)
+            payload.append(',');
+        payload.append(key);
+    }
+
+    private void send(String payload) {
+        try {
+            jdbcTemplate.query("SELECT pg_notify(?, ?)", rs -> null, config.getChannel(), payload);
+            notifications.increment();
+        } catch (DataAccessException e) {
+            // Other nodes fall back to the cache TTL for these keys
+            logger.warn("Cache invalidation notify failed: {}", e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,151 @@
+package com.example.bankcards.cache;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.regex.Pattern;
+
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import com.example.bankcards.config.InvalidationConfig;
+import com.example.bankcards.stream.CardStreamRegistry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+// Holds one dedicated connection in LISTEN mode and evicts local cache entries
+// for changes committed on other nodes. The connection is opened outside the
+// Hikari pool, which would otherwise lose one connection for good. Whatever was
+// missed while disconnected is covered by clearing the whole cache on (re)connect.
+// Card stream events from the other nodes are handed to the local subscribers.
+@Component
+@ConditionalOnProperty(prefix = "cache.invalidation", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class InvalidationListener implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvalidationListener.class);
+    private static final Pattern CHANNEL_NAME = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final DataSourceProperties dataSourceProperties;
+    private final CardCache cardCache;
+    private final CardStreamRegistry cardStreamRegistry;
+    private final InvalidationBus invalidationBus;
+    private final InvalidationConfig config;
+    private final Counter received;
+
+    private volatile boolean running;
+    private Thread thread;
+
+    public InvalidationListener(DataSourceProperties dataSourceProperties, CardCache cardCache,
+            CardStreamRegistry cardStreamRegistry, InvalidationBus invalidationBus, InvalidationConfig config,
+            MeterRegistry meterRegistry) {
+        if (!CHANNEL_NAME.matcher(config.getChannel()).matches())
+            throw new IllegalArgumentException("Invalid notification channel name: " + config.getChannel());
+        this.dataSourceProperties = dataSourceProperties;
+        this.cardCache = cardCache;
+        this.cardStreamRegistry = cardStreamRegistry;
+        this.invalidationBus = invalidationBus;
+        this.config = config;
+        this.received = meterRegistry.counter("cache.invalidation.notifications", "direction", "received");
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = new Thread(this::listen, "cache-invalidation-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (thread != null)
+            thread.interrupt();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + config.getChannel());
+                }
+                cardCache.evictAll();
+                logger.info("Listening for cache invalidations on channel '{}'", config.getChannel());
+
+                int timeout = (int) config.getPollTimeout().toMillis();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(timeout);
+                    if (notifications == null)
+                        continue;
+                    for (PGNotification notification : notifications) {
+                        handle(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running)
+                    return;
+                logger.warn("Cache invalidation listener disconnected: {}", e.getMessage());
+                sleep();
+            }
+        }
+    }
+
+    void handle(String payload) {
+        int separator = payload.indexOf('|');
+        if (separator < 0 || payload.substring(0, separator).equals(invalidationBus.getNodeId()))
+            return;
+
+        received.increment();
+        for (String key : payload.substring(separator + 1).split(",")) {
+            try {
+                if (key.equals(InvalidationBus.ALL)) {
+                    cardCache.evictAll();
+                } else if (key.startsWith(InvalidationBus.CARD_PREFIX)) {
+                    cardCache.evict(UUID.fromString(key.substring(InvalidationBus.CARD_PREFIX.length())));
+                } else if (key.startsWith(InvalidationBus.USER_PREFIX)) {
+                    cardCache.evictOwner(Long.valueOf(key.substring(InvalidationBus.USER_PREFIX.length())));
+                } else if (key.startsWith(InvalidationBus.STREAM_PREFIX)) {
+                    deliverStreamEvent(key.substring(InvalidationBus.STREAM_PREFIX.length()));
+                }
+            } catch (IllegalArgumentException e) {
+                logger.warn("Malformed cache invalidation key: {}", key);
+            }
+        }
+    }
+
+    // "<ownerId>:<event>:<base64url data>"
+    private void deliverStreamEvent(String key) {
+        String[] parts = key.split(":", 3);
+        if (parts.length != 3)
+            throw new IllegalArgumentException("Malformed stream key");
+        String data = new String(Base64.getUrlDecoder().decode(parts[2]), StandardCharsets.UTF_8);
+        cardStreamRegistry.deliver(Long.valueOf(parts[0]), parts[1], data);
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(config.getReconnectDelay().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,15 @@
+package com.example.bankcards.concurrency;
+
+// Operation names used for retry policies, lock modes and metric tags
+public final class ConflictOperations {
+
+    public static final String TRANSFER = "transfer";
+    public static final String CARD_STATUS = "card-status";
+    public static final String CARD_DELETE = "card-delete";
+    public static final String USER_UPDATE = "user-update";
+    public static final String USER_DELETE = "user-delete";
+
+    private ConflictOperations() {
+    }
+
+}
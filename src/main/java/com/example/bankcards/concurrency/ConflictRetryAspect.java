@@ -0,0 +1,82 @@
+package com.example.bankcards.concurrency;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.bankcards.config.ConcurrencyConfig;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+
+// Ordered just ahead of the transaction interceptor (LOWEST_PRECEDENCE), so every
+// attempt gets a fresh transaction and persistence context
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+public class ConflictRetryAspect {
+
+    private static final Logger logger = LoggerFactory.getLogger(ConflictRetryAspect.class);
+
+    private final ConcurrencyConfig config;
+    private final MeterRegistry meterRegistry;
+
+    public ConflictRetryAspect(ConcurrencyConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("@annotation(retryOnConflict)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnConflict retryOnConflict) throws Throwable {
+        // Called from inside another transaction: only the outermost caller can retry
+        if (TransactionSynchronizationManager.isActualTransactionActive())
+            return joinPoint.proceed();
+
+        String operation = retryOnConflict.value();
+        String mode = config.modeFor(operation).name().toLowerCase();
+        int maxAttempts = config.maxAttemptsFor(operation);
+        long backoffNanos = config.getInitialBackoff().toNanos();
+
+        for (int attempt = 1;; attempt++) {
+            try {
+                return joinPoint.proceed();
+            } catch (ConcurrencyFailureException | OptimisticLockException ex) {
+                meterRegistry.counter("concurrency.conflicts", "operation", operation, "mode", mode).increment();
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("concurrency.retries.exhausted", "operation", operation).increment();
+                    logger.info("Giving up on {} after {} conflicting attempts", operation, attempt);
+                    throw ex;
+                }
+                meterRegistry.counter("concurrency.retries", "operation", operation).increment();
+                logger.debug("Conflict in {} (attempt {}), retrying", operation, attempt);
+                backoff(backoffNanos, ex);
+                backoffNanos = Math.min((long) (backoffNanos * config.getMultiplier()),
+                        config.getMaxBackoff().toNanos());
+            }
+        }
+    }
+
+    // Jitter in [backoff/2, backoff] keeps colliding callers from retrying in lockstep
+    private void backoff(long backoffNanos, RuntimeException cause) {
+        if (backoffNanos <= 0)
+            return;
+        long sleepNanos = backoffNanos / 2 + ThreadLocalRandom.current().nextLong(backoffNanos / 2 + 1);
+        try {
+            TimeUnit.NANOSECONDS.sleep(sleepNanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+}
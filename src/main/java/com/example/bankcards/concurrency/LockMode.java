@@ -0,0 +1,6 @@
+package com.example.bankcards.concurrency;
+
+public enum LockMode {
+    OPTIMISTIC,
+    PESSIMISTIC
+}
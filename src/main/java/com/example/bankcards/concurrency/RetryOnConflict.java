@@ -0,0 +1,22 @@
+package com.example.bankcards.concurrency;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Re-runs the annotated transactional method when it fails with a concurrency
+ * conflict (stale @Version, deadlock, lock timeout), with exponential backoff
+ * as configured under {@code concurrency.*}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface RetryOnConflict {
+
+    // Operation name, see ConflictOperations
+    String value();
+
+}
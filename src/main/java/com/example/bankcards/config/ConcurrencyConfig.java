@@ -0,0 +1,99 @@
+package com.example.bankcards.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.bankcards.concurrency.LockMode;
+
+@Configuration
+@ConfigurationProperties(prefix = "concurrency")
+public class ConcurrencyConfig {
+
+    private int maxAttempts = 3;
+    private Duration initialBackoff = Duration.ofMillis(10);
+    private Duration maxBackoff = Duration.ofMillis(200);
+    private double multiplier = 2.0;
+    private Map<String, Operation> operations = new HashMap<>();
+
+    public LockMode modeFor(String operation) {
+        Operation policy = operations.get(operation);
+        return policy != null ? policy.getMode() : LockMode.OPTIMISTIC;
+    }
+
+    public boolean isPessimistic(String operation) {
+        return modeFor(operation) == LockMode.PESSIMISTIC;
+    }
+
+    public int maxAttemptsFor(String operation) {
+        Operation policy = operations.get(operation);
+        return policy != null && policy.getMaxAttempts() != null ? policy.getMaxAttempts() : maxAttempts;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public void setInitialBackoff(Duration initialBackoff) {
+        this.initialBackoff = initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public void setMaxBackoff(Duration maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    public void setMultiplier(double multiplier) {
+        this.multiplier = multiplier;
+    }
+
+    public Map<String, Operation> getOperations() {
+        return operations;
+    }
+
+    public void setOperations(Map<String, Operation> operations) {
+        this.operations = operations;
+    }
+
+    public static class Operation {
+
+        private LockMode mode = LockMode.OPTIMISTIC;
+        private Integer maxAttempts;
+
+        public LockMode getMode() {
+            return mode;
+        }
+
+        public void setMode(LockMode mode) {
+            this.mode = mode;
+        }
+
+        public Integer getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(Integer maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+    }
+
+}
@@ -1,17 +1,28 @@
 package com.example.bankcards.config;
 
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.search.UserNameIndex;
+import com.example.bankcards.service.BalanceSummaryService;
+import com.example.bankcards.util.FullNames;
 
 @Configuration
 public class DataInitializer {
 
+    private static final int NORMALIZE_CHUNK = 10_000;
+
     private final UserRepository userRepository;
 
     DataInitializer(UserRepository userRepository) {
@@ -21,7 +32,7 @@ public class DataInitializer {
     @Bean
     public CommandLineRunner initData(UserRepository userRepository, PasswordEncoder passwordEncoder) {
         return args -> {
-            if (userRepository.count() == 0) {
+            if (!userRepository.existsAny()) {
                 User admin = new User();
                 admin.setUsername("ADMIN");
                 admin.setFullName("Admin_account");
@@ -33,4 +44,36 @@ public class DataInitializer {
         };
     }
 
+    // First start after full_name_normalized was added: fill it in for existing users. Replicas started
+    // with fast-start join a database that is already filled and skip it. The autocomplete index then
+    // loads in the background, so reading every name does not hold up readiness.
+    @Bean
+    public CommandLineRunner initFullNameSearch(JdbcTemplate jdbcTemplate, UserNameIndex userNameIndex,
+            TaskScheduler taskScheduler, @Value("${user-search.backfill-on-startup:true}") boolean backfill) {
+        return args -> {
+            if (backfill)
+                backfillNormalizedNames(jdbcTemplate);
+            taskScheduler.schedule(userNameIndex::rebuild, Instant.now());
+        };
+    }
+
+    private static void backfillNormalizedNames(JdbcTemplate jdbcTemplate) {
+        int updated;
+        do {
+            List<Object[]> batch = jdbcTemplate.query(
+                    "SELECT id, full_name FROM users WHERE full_name_normalized IS NULL LIMIT ?",
+                    (rs, rowNum) -> new Object[] { FullNames.normalize(rs.getString("full_name")),
+                            rs.getLong("id") },
+                    NORMALIZE_CHUNK);
+            jdbcTemplate.batchUpdate("UPDATE users SET full_name_normalized = ? WHERE id = ?", batch);
+            updated = batch.size();
+        } while (updated == NORMALIZE_CHUNK);
+    }
+
+    // First start on an existing database: derive the balance aggregates from the cards
+    @Bean
+    public CommandLineRunner initBalanceSummary(BalanceSummaryService balanceSummaryService) {
+        return args -> balanceSummaryService.rebuildIfMissing();
+    }
+
 }
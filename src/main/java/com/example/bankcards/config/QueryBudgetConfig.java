@@ -0,0 +1,55 @@
+package com.example.bankcards.config;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "query-budget")
+public class QueryBudgetConfig {
+
+    private boolean enabled = true;
+    private boolean exposeHeader = false;
+    private int defaultBudget = 10;
+    // "<METHOD> <handler pattern>" -> max statements per request
+    private Map<String, Integer> endpoints = new HashMap<>();
+
+    public int budgetFor(String endpoint) {
+        return endpoints.getOrDefault(endpoint, defaultBudget);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isExposeHeader() {
+        return exposeHeader;
+    }
+
+    public void setExposeHeader(boolean exposeHeader) {
+        this.exposeHeader = exposeHeader;
+    }
+
+    public int getDefaultBudget() {
+        return defaultBudget;
+    }
+
+    public void setDefaultBudget(int defaultBudget) {
+        this.defaultBudget = defaultBudget;
+    }
+
+    public Map<String, Integer> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, Integer> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+}
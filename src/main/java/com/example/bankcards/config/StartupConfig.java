@@ -0,0 +1,45 @@
+package com.example.bankcards.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+public class StartupConfig {
+
+    // Post-processors run before @ConfigurationProperties beans exist, so the list is bound from the Environment
+    @Bean
+    public static BeanFactoryPostProcessor lazyPackagesPostProcessor(Environment environment) {
+        return lazyPackagesPostProcessor(Binder.get(environment)
+                .bind("startup.lazy-packages", Bindable.listOf(String.class))
+                .orElse(List.of()));
+    }
+
+    static BeanFactoryPostProcessor lazyPackagesPostProcessor(List<String> lazyPackages) {
+        return beanFactory -> {
+            if (lazyPackages.isEmpty())
+                return;
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                String source = declaringClass(definition);
+                if (source != null && lazyPackages.stream().anyMatch(source::startsWith))
+                    definition.setLazyInit(true);
+            }
+        };
+    }
+
+    // The class of a component, or the configuration class of a @Bean method
+    private static String declaringClass(BeanDefinition definition) {
+        if (definition instanceof AnnotatedBeanDefinition annotated && annotated.getFactoryMethodMetadata() != null)
+            return annotated.getFactoryMethodMetadata().getDeclaringClassName();
+        return definition.getBeanClassName();
+    }
+
+}
@@ -0,0 +1,58 @@
+package com.example.bankcards.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "warmup")
+public class WarmupConfig {
+
+    private boolean enabled = true;
+    private int iterations = 5000;
+    private Duration maxDuration = Duration.ofSeconds(20);
+    private boolean databaseReads = false;
+    private int databaseIterations = 200;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    public Duration getMaxDuration() {
+        return maxDuration;
+    }
+
+    public void setMaxDuration(Duration maxDuration) {
+        this.maxDuration = maxDuration;
+    }
+
+    public boolean isDatabaseReads() {
+        return databaseReads;
+    }
+
+    public void setDatabaseReads(boolean databaseReads) {
+        this.databaseReads = databaseReads;
+    }
+
+    public int getDatabaseIterations() {
+        return databaseIterations;
+    }
+
+    public void setDatabaseIterations(int databaseIterations) {
+        this.databaseIterations = databaseIterations;
+    }
+
+}
@@ -14,6 +14,9 @@ import org.springframework.web.bind.annotation.RestController;
 import com.example.bankcards.dto.ErrorResponse;
 import com.example.bankcards.dto.JwtResponse;
 import com.example.bankcards.dto.LoginRequest;
+import com.example.bankcards.ratelimit.RateLimitKey;
+import com.example.bankcards.ratelimit.RateLimited;
+import com.example.bankcards.ratelimit.RateLimits;
 import com.example.bankcards.security.CustomUserDetails;
 import com.example.bankcards.security.JwtUtil;
 
@@ -42,9 +45,11 @@ public class AuthController {
             """)
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Пользователь успешно авторизован", content = @Content(mediaType = "application/json", schema = @Schema(implementation = JwtResponse.class))),
-            @ApiResponse(responseCode = "401", description = "Имя пользователя или пароль неверны или возникло исключение авторизации", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+            @ApiResponse(responseCode = "401", description = "Имя пользователя или пароль неверны или возникло исключение авторизации", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "429", description = "Слишком много попыток входа с этого адреса", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
     @PostMapping("/login")
+    @RateLimited(value = RateLimits.LOGIN, key = RateLimitKey.IP)
     public ResponseEntity<?> login(
             @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Имя пользователя и пароль", required = true, content = @Content(schema = @Schema(implementation = LoginRequest.class))) @Valid @RequestBody LoginRequest loginRequest) {
         try {
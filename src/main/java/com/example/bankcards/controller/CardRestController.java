@@ -1,14 +1,20 @@
 package com.example.bankcards.controller;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.net.URI;
+import java.util.List;
 import java.util.UUID;
 
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -18,19 +24,35 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.example.bankcards.dto.CardDeleteResult;
 import com.example.bankcards.dto.CardDto;
 import com.example.bankcards.dto.CardRequest;
+import com.example.bankcards.dto.CardSearchFilter;
+import com.example.bankcards.dto.CardSearchResult;
 import com.example.bankcards.dto.ErrorResponse;
+import com.example.bankcards.dto.MultiGetResult;
+import com.example.bankcards.dto.Versioned;
 import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.exception.InsufficientFundsException;
+import com.example.bankcards.ratelimit.RateLimited;
+import com.example.bankcards.ratelimit.RateLimits;
+import com.example.bankcards.security.CustomUserDetails;
+import com.example.bankcards.service.CardBulkDeleteService;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.stream.CardStreamRegistry;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 
 @RestController
@@ -38,9 +60,16 @@ import jakarta.validation.Valid;
 public class CardRestController {
 
     private final CardService cardService;
+    private final CardBulkDeleteService cardBulkDeleteService;
+    private final CardStreamRegistry cardStreamRegistry;
+    private final MeterRegistry meterRegistry;
 
-    public CardRestController(CardService cardService) {
+    public CardRestController(CardService cardService, CardBulkDeleteService cardBulkDeleteService,
+            CardStreamRegistry cardStreamRegistry, MeterRegistry meterRegistry) {
         this.cardService = cardService;
+        this.cardBulkDeleteService = cardBulkDeleteService;
+        this.cardStreamRegistry = cardStreamRegistry;
+        this.meterRegistry = meterRegistry;
     }
 
     @Operation(summary = "Создать новую карту для пользователя", description = "Создает новую карту для казанного пользователя. Доступно только для админов.")
@@ -87,6 +116,22 @@ public class CardRestController {
         return ResponseEntity.noContent().build();
     }
 
+    @Operation(summary = "Удалить карты по фильтру", description = """
+            Удаляет все карты, подходящие под фильтры поиска карт; нужен хотя бы один фильтр. Карты удаляются порциями \
+            по cards.bulk-delete.chunk-size (по умолчанию 1000), каждая в своей транзакции: при сбое уже удалённые порции \
+            не восстанавливаются, и запрос можно повторить. Доступно только для админов.
+            """)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Карты удалены", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CardDeleteResult.class))),
+            @ApiResponse(responseCode = "400", description = "Не задан ни один фильтр или фильтр некорректен", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @DeleteMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CardDeleteResult> deleteCards(@ParameterObject @Valid CardSearchFilter filter) {
+        long deleted = cardBulkDeleteService.deleteCards(filter);
+        return ResponseEntity.ok().body(new CardDeleteResult(deleted));
+    }
+
     @Operation(summary = "Получить карты пользователя", description = "Возвращает постраничный список карт указанного пользователя. Доступно для админа и пользователя.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Список карт получен", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class))),
@@ -100,31 +145,101 @@ public class CardRestController {
         return ResponseEntity.ok().body(cards);
     }
 
+    @Operation(summary = "Получить карты по списку ID", description = "Возвращает найденные карты одним запросом и список ID, которые не найдены или недоступны. Не более 100 ID. Доступно для админа и пользователя.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Карты получены", content = @Content(mediaType = "application/json", schema = @Schema(implementation = MultiGetResult.class))),
+            @ApiResponse(responseCode = "400", description = "Пустой или слишком длинный список ID", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(params = "ids")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<MultiGetResult<CardDto, UUID>> getCards(@RequestParam List<UUID> ids) {
+        MultiGetResult<CardDto, UUID> cards = cardService.getCards(ids);
+        return ResponseEntity.ok().body(cards);
+    }
+
+    @Operation(summary = "Подписаться на изменения своих карт", description = """
+            Server-Sent Events: после каждого перевода или смены статуса присылает событие card с новым состоянием карты (CardDto).
+            Когда срок действия карты истекает, присылается событие card-status с полями id и cardStatus.
+            При удалении карты присылается событие card-removed с её id.
+            Раз в 20 секунд присылается комментарий heartbeat. Не более 5 одновременных подписок на пользователя.
+            События приходят независимо от того, какой узел выполнил изменение. Подписка, клиент которой 10 секунд не принимает данные, закрывается.
+            Доступно для админа и пользователя.
+            """)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Поток событий открыт", content = @Content(mediaType = "text/event-stream")),
+            @ApiResponse(responseCode = "429", description = "Превышено число одновременных подписок", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public void streamCards(@AuthenticationPrincipal CustomUserDetails principal, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        cardStreamRegistry.subscribe(principal.getId(), request, response);
+    }
+
     @Operation(summary = "Перевести деньги между картами", description = "Перевод средств с одной карты на другую. Доступно для админа и пользователя.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Перевод выполнен успешно"),
-            @ApiResponse(responseCode = "400", description = "Ошибка при переводе (например, недостаточно средств)", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+            @ApiResponse(responseCode = "400", description = "Ошибка при переводе (например, недостаточно средств)", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "429", description = "Превышен лимит переводов пользователя", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
     @PostMapping("/transfer")
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    @RateLimited(RateLimits.TRANSFER)
     public ResponseEntity<Void> transfer(
             @RequestParam UUID fromCardId,
             @RequestParam UUID toCardId,
             @RequestParam BigDecimal amount) {
-        cardService.transfer(fromCardId, toCardId, amount);
+        // Timed here rather than in the service, so conflict retries count once with their final outcome
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "failed";
+        try {
+            cardService.transfer(fromCardId, toCardId, amount);
+            outcome = "success";
+        } catch (InsufficientFundsException ex) {
+            outcome = "insufficient_funds";
+            throw ex;
+        } catch (IllegalStateException ex) {
+            // Blocked, expired or otherwise inactive card
+            outcome = "inactive";
+            throw ex;
+        } finally {
+            sample.stop(meterRegistry.timer("cards.transfer", "outcome", outcome));
+        }
         return ResponseEntity.ok().build();
     }
 
-    @Operation(summary = "Получить карту по ID", description = "Возвращает информацию о карте по её идентификатору. Доступно для админа и пользователя.")
+    @Operation(summary = "Поиск карт", description = """
+            Возвращает карты, подходящие под фильтры (статус, владелец, последние 4 цифры, срок действия, баланс).
+            Используется курсорная пагинация: для следующей страницы передайте nextCursor в параметр after.
+            Доступно только для админов.
+            """)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Результаты поиска", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CardSearchResult.class))),
+            @ApiResponse(responseCode = "400", description = "Некорректные параметры поиска", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/search")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CardSearchResult> searchCards(@ParameterObject @Valid CardSearchFilter filter,
+            @RequestParam(required = false) UUID after,
+            @RequestParam(defaultValue = "20") int size) {
+        CardSearchResult result = cardService.searchCards(filter, after, size);
+        return ResponseEntity.ok().body(result);
+    }
+
+    @Operation(summary = "Получить карту по ID", description = "Возвращает информацию о карте по её идентификатору. Поддерживает If-None-Match по ETag. Доступно для админа и пользователя.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Карта найдена", content = @Content(mediaType = "application/json", schema = @Schema(implementation = CardDto.class))),
+            @ApiResponse(responseCode = "304", description = "Карта не изменилась с версии из If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Карта не найдена", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping("/{cardId}")
     @PreAuthorize("hasAnyRole('USER','ADMIN')")
-    public ResponseEntity<CardDto> getCardById(@PathVariable UUID cardId) {
-        CardDto card = cardService.getCard(cardId);
-        return ResponseEntity.ok().body(card);
+    public ResponseEntity<CardDto> getCardById(@PathVariable UUID cardId, WebRequest request) {
+        Versioned<CardDto> card = cardService.getVersionedCard(cardId);
+        if (request.checkNotModified(card.etag()))
+            return null;
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).eTag(card.etag())
+                .body(card.body());
     }
 
 }
@@ -1,10 +1,13 @@
 package com.example.bankcards.controller;
 
 import java.net.URI;
+import java.util.List;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -16,11 +19,21 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.example.bankcards.dto.BalanceReconciliationDto;
+import com.example.bankcards.dto.BalanceSummaryDto;
+import com.example.bankcards.dto.BalanceTotalsDto;
+import com.example.bankcards.dto.BulkUserResult;
 import com.example.bankcards.dto.ErrorResponse;
+import com.example.bankcards.dto.MultiGetResult;
 import com.example.bankcards.dto.UserDto;
 import com.example.bankcards.dto.UserRequest;
+import com.example.bankcards.dto.UserSearchResult;
+import com.example.bankcards.dto.Versioned;
+import com.example.bankcards.service.BalanceSummaryService;
+import com.example.bankcards.service.UserImportService;
 import com.example.bankcards.service.UserService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -36,9 +49,14 @@ import jakarta.validation.Valid;
 public class UserRestController {
 
     private final UserService userService;
+    private final BalanceSummaryService balanceSummaryService;
+    private final UserImportService userImportService;
 
-    public UserRestController(UserService userService) {
+    public UserRestController(UserService userService, BalanceSummaryService balanceSummaryService,
+            UserImportService userImportService) {
         this.userService = userService;
+        this.balanceSummaryService = balanceSummaryService;
+        this.userImportService = userImportService;
     }
 
     @Operation(summary = "Создать нового пользователя", description = "Создает нового пользователя с укзанными данными. Доступен только для админов.")
@@ -59,18 +77,80 @@ public class UserRestController {
         return ResponseEntity.created(location).body(createdUser);
     }
 
-    @Operation(summary = "Получить пользователя по ID", description = "Возвращает данные пользователя по его идентификатору.")
+    @Operation(summary = "Создать пользователей пакетом", description = """
+            Создает до users.import.max-batch-size пользователей (по умолчанию 200) одним запросом. Строки проверяются \
+            независимо: ошибки валидации и занятые имена возвращаются по каждой строке, остальные пользователи создаются. \
+            Пароли хешируются параллельно, поэтому время запроса растет с числом строк и падает с числом ядер. \
+            Доступен только для админов.
+            """)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Пакет обработан", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BulkUserResult.class))),
+            @ApiResponse(responseCode = "400", description = "Пустой или слишком большой пакет", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class))),
+            @ApiResponse(responseCode = "409", description = "Имя из пакета одновременно занято другим запросом, пакет не создан", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @PostMapping("/bulk")
+    public ResponseEntity<BulkUserResult> createUsers(
+            @io.swagger.v3.oas.annotations.parameters.RequestBody(description = "Данные новых пользователей", required = true) @RequestBody List<UserRequest> userRequests) {
+        BulkUserResult result = userImportService.createUsers(userRequests);
+        return ResponseEntity.ok().body(result);
+    }
+
+    @Operation(summary = "Получить пользователя по ID", description = "Возвращает данные пользователя по его идентификатору. Поддерживает If-None-Match по ETag.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Пользователь найден", content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserDto.class))),
+            @ApiResponse(responseCode = "304", description = "Пользователь не изменился с версии из If-None-Match"),
             @ApiResponse(responseCode = "404", description = "Пользователь не найден", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
     })
     @GetMapping("/{userId}")
-    public ResponseEntity<UserDto> getUserById(@PathVariable Long userId) {
-        UserDto user = userService.getUserById(userId);
-        return ResponseEntity.ok().body(user);
+    public ResponseEntity<UserDto> getUserById(@PathVariable Long userId, WebRequest request) {
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(userService.getUserETag(userId)))
+            return null;
+        Versioned<UserDto> user = userService.getVersionedUser(userId);
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).eTag(user.etag())
+                .body(user.body());
+    }
+
+    @Operation(summary = "Получить пользователей по списку ID", description = "Возвращает найденных пользователей одним запросом и список ID, которые не найдены. Не более 100 ID.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Пользователи получены", content = @Content(mediaType = "application/json", schema = @Schema(implementation = MultiGetResult.class))),
+            @ApiResponse(responseCode = "400", description = "Пустой или слишком длинный список ID", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping(params = "ids")
+    public ResponseEntity<MultiGetResult<UserDto, Long>> getUsers(@RequestParam List<Long> ids) {
+        MultiGetResult<UserDto, Long> users = userService.getUsers(ids);
+        return ResponseEntity.ok().body(users);
+    }
+
+    @Operation(summary = "Поиск пользователей по ФИО", description = """
+            Возвращает пользователей, чьё ФИО начинается с заданной строки, без учёта регистра, лишних пробелов и различия ё/е.
+            Используется курсорная пагинация: для следующей страницы передайте nextCursor в параметр after.
+            """)
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Результаты поиска", content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserSearchResult.class))),
+            @ApiResponse(responseCode = "400", description = "Пустая строка поиска, некорректный размер страницы или неизвестный курсор", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/search")
+    public ResponseEntity<UserSearchResult> searchUsers(@RequestParam String name,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "20") int size) {
+        UserSearchResult result = userService.searchUsers(name, after, size);
+        return ResponseEntity.ok().body(result);
     }
 
-    @Operation(summary = "Получить пользователя по полному имени", description = "Возвращает данные пользователя по полному имени.")
+    @Operation(summary = "Подсказки ФИО", description = "Возвращает различные ФИО, начинающиеся с заданной строки, из индекса в памяти. Изменения с других узлов появляются после периодической перестройки индекса.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Подсказки получены"),
+            @ApiResponse(responseCode = "400", description = "Некорректное количество подсказок", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/autocomplete")
+    public ResponseEntity<List<String>> suggestFullNames(@RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        List<String> suggestions = userService.suggestFullNames(prefix, limit);
+        return ResponseEntity.ok().body(suggestions);
+    }
+
+    @Operation(summary = "Получить пользователя по полному имени", description = "Возвращает данные пользователя по точному совпадению полного имени. Устарел: ФИО не уникальны, используйте /api/users/search.", deprecated = true)
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Пользователь найден", content = @Content(mediaType = "application/json", schema = @Schema(implementation = UserDto.class))),
             @ApiResponse(responseCode = "404", description = "Пользователь не найден", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
@@ -81,6 +161,38 @@ public class UserRestController {
         return ResponseEntity.ok().body(user);
     }
 
+    @Operation(summary = "Получить сводку по балансу пользователя", description = "Возвращает количество карт и суммарный баланс пользователя из агрегатной таблицы. Доступно для админа и самого пользователя.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Сводка получена", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BalanceSummaryDto.class))),
+            @ApiResponse(responseCode = "404", description = "Пользователь не найден", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
+    })
+    @GetMapping("/{userId}/balance-summary")
+    @PreAuthorize("hasAnyRole('USER','ADMIN')")
+    public ResponseEntity<BalanceSummaryDto> getBalanceSummary(@PathVariable Long userId) {
+        BalanceSummaryDto summary = balanceSummaryService.getUserSummary(userId);
+        return ResponseEntity.ok().body(summary);
+    }
+
+    @Operation(summary = "Получить суммарный баланс системы", description = "Возвращает количество карт и суммарный баланс по всем картам. Доступно только для админов.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Итоги получены", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BalanceTotalsDto.class)))
+    })
+    @GetMapping("/balance-summary")
+    public ResponseEntity<BalanceTotalsDto> getBalanceTotals() {
+        BalanceTotalsDto totals = balanceSummaryService.getTotals();
+        return ResponseEntity.ok().body(totals);
+    }
+
+    @Operation(summary = "Сверить агрегаты баланса", description = "Сравнивает агрегаты баланса с суммой по таблице карт. Доступно только для админов.")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Сверка выполнена", content = @Content(mediaType = "application/json", schema = @Schema(implementation = BalanceReconciliationDto.class)))
+    })
+    @GetMapping("/balance-summary/reconciliation")
+    public ResponseEntity<BalanceReconciliationDto> reconcileBalances() {
+        BalanceReconciliationDto result = balanceSummaryService.reconcile();
+        return ResponseEntity.ok().body(result);
+    }
+
     @Operation(summary = "Получить список всех пользователей", description = "Возвращает постраничный список всех пользователей. Поддерживается пагинация.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Список пользователей получен", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Page.class))),
@@ -105,7 +217,7 @@ public class UserRestController {
         return ResponseEntity.ok().body(updatedUser);
     }
 
-    @Operation(summary = "Удалить пользователя", description = "Удаляет пользователя по ID. Доступно только для админов.")
+    @Operation(summary = "Удалить пользователя", description = "Удаляет пользователя по ID вместе со всеми его картами. Доступно только для админов.")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "204", description = "Пользователь успешно удален"),
             @ApiResponse(responseCode = "404", description = "Пользователь не найден", content = @Content(mediaType = "application/json", schema = @Schema(implementation = ErrorResponse.class)))
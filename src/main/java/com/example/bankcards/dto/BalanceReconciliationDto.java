@@ -0,0 +1,22 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Результат сверки агрегатов баланса с данными карт")
+public record BalanceReconciliationDto(
+
+        @Schema(description = "Агрегаты совпадают с данными карт", example = "true")
+        boolean consistent,
+
+        @Schema(description = "Итоги из агрегатной таблицы")
+        BalanceTotalsDto recorded,
+
+        @Schema(description = "Итоги, посчитанные по таблице карт")
+        BalanceTotalsDto actual,
+
+        @Schema(description = "Пользователи, чьи агрегаты расходятся с картами (не более 100)")
+        List<Long> mismatchedUserIds) {
+
+}
@@ -0,0 +1,19 @@
+package com.example.bankcards.dto;
+
+import java.math.BigDecimal;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Сводка по балансу карт пользователя")
+public record BalanceSummaryDto(
+
+        @Schema(description = "Идентификатор пользователя", example = "15")
+        Long userId,
+
+        @Schema(description = "Количество карт", example = "3")
+        long cardCount,
+
+        @Schema(description = "Суммарный баланс всех карт", example = "1500.00")
+        BigDecimal totalBalance) {
+
+}
@@ -0,0 +1,16 @@
+package com.example.bankcards.dto;
+
+import java.math.BigDecimal;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Суммарный баланс по всем картам системы")
+public record BalanceTotalsDto(
+
+        @Schema(description = "Количество карт", example = "1200")
+        long cardCount,
+
+        @Schema(description = "Суммарный баланс всех карт", example = "250000.00")
+        BigDecimal totalBalance) {
+
+}
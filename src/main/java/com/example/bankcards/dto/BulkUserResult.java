@@ -0,0 +1,30 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Результат пакетного создания пользователей")
+public record BulkUserResult(
+
+        @Schema(description = "Созданные пользователи в порядке запроса")
+        List<UserDto> created,
+
+        @Schema(description = "Строки запроса, которые не удалось создать")
+        List<BulkUserError> failed) {
+
+    @Schema(description = "Ошибка по строке пакетного запроса")
+    public record BulkUserError(
+
+            @Schema(description = "Номер строки в запросе, с нуля", example = "3")
+            int index,
+
+            @Schema(description = "Имя пользователя из строки", example = "john_doe")
+            String username,
+
+            @Schema(description = "Причина ошибки", example = "Username already in use: john_doe")
+            String message) {
+
+    }
+
+}
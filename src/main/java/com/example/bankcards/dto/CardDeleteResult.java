@@ -0,0 +1,11 @@
+package com.example.bankcards.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Результат удаления карт по фильтру")
+public record CardDeleteResult(
+
+        @Schema(description = "Число удалённых карт", example = "1250")
+        long deleted) {
+
+}
@@ -0,0 +1,36 @@
+package com.example.bankcards.dto;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+import com.example.bankcards.entity.CardStatus;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Pattern;
+
+@Schema(description = "Фильтр поиска карт")
+public record CardSearchFilter(
+
+        @Schema(description = "Статус карты", example = "ACTIVE")
+        CardStatus status,
+
+        @Schema(description = "Идентификатор владельца", example = "15")
+        Long ownerId,
+
+        @Schema(description = "Последние 4 цифры номера", example = "1234")
+        @Pattern(regexp = "\\d{4}", message = "last4 must be exactly 4 digits")
+        String last4,
+
+        @Schema(description = "Срок действия не раньше (yyyy-MM)", example = "2026-01", type = "string")
+        YearMonth expiryFrom,
+
+        @Schema(description = "Срок действия не позже (yyyy-MM)", example = "2030-12", type = "string")
+        YearMonth expiryTo,
+
+        @Schema(description = "Минимальный баланс", example = "0.00")
+        BigDecimal minBalance,
+
+        @Schema(description = "Максимальный баланс", example = "1000.00")
+        BigDecimal maxBalance) {
+
+}
@@ -0,0 +1,17 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Страница результатов поиска карт")
+public record CardSearchResult(
+
+        @Schema(description = "Найденные карты")
+        List<CardDto> content,
+
+        @Schema(description = "Курсор следующей страницы (параметр after), null если страница последняя", example = "f47ac10b-58cc-4372-a567-0e02b2c3d479")
+        UUID nextCursor) {
+
+}
@@ -0,0 +1,16 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Результат выборки по списку идентификаторов")
+public record MultiGetResult<T, K>(
+
+        @Schema(description = "Найденные записи в порядке запроса")
+        List<T> found,
+
+        @Schema(description = "Идентификаторы, которые не найдены или недоступны текущему пользователю")
+        List<K> missing) {
+
+}
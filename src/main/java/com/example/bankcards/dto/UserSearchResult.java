@@ -0,0 +1,16 @@
+package com.example.bankcards.dto;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "Страница результатов поиска пользователей по ФИО")
+public record UserSearchResult(
+
+        @Schema(description = "Найденные пользователи в порядке ФИО")
+        List<UserDto> content,
+
+        @Schema(description = "Курсор следующей страницы (параметр after), null если страница последняя", example = "42")
+        Long nextCursor) {
+
+}
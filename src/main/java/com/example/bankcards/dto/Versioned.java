@@ -0,0 +1,6 @@
+package com.example.bankcards.dto;
+
+// A response body together with the strong ETag of the entity state it was built from
+public record Versioned<T>(T body, String etag) {
+
+}
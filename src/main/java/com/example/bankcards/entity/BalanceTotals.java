@@ -0,0 +1,34 @@
+package com.example.bankcards.entity;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Single-row table with the system-wide card count and balance
+@Entity
+@Table(name = "balance_totals")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class BalanceTotals {
+
+    public static final int SINGLETON_ID = 1;
+
+    @Id
+    private Integer id;
+
+    @Column(name = "card_count", nullable = false)
+    private long cardCount;
+
+    @Column(name = "total_balance", precision = 19, scale = 2, nullable = false)
+    private BigDecimal totalBalance;
+
+}
@@ -2,8 +2,13 @@ package com.example.bankcards.entity;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.YearMonth;
 import java.util.UUID;
 
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
 import com.example.bankcards.util.CardNumberConverter;
 
 import jakarta.persistence.Column;
@@ -15,9 +20,11 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -28,7 +35,13 @@ import lombok.Setter;
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "cards")
+@Table(name = "cards", indexes = {
+        @Index(name = "idx_cards_owner_id", columnList = "owner_id"),
+        @Index(name = "idx_cards_expiry", columnList = "expiry_year, expiry_month"),
+        @Index(name = "idx_cards_status_id", columnList = "status, id"),
+        @Index(name = "idx_cards_last4_id", columnList = "last4, id"),
+        @Index(name = "idx_cards_balance", columnList = "balance")
+})
 public class Card {
 
     @Id
@@ -49,8 +62,10 @@ public class Card {
     @Column(name = "expiry_month", nullable = false)
     private Integer expiryMonth;
 
+    // Matches fk_cards_user_id in the changelog for schemas Hibernate generates
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private User owner;
 
     @Enumerated(EnumType.STRING)
@@ -60,6 +75,11 @@ public class Card {
     @Column(precision = 19, scale = 2, nullable = false)
     private BigDecimal balance = BigDecimal.ZERO.setScale(2, RoundingMode.HALF_UP);
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     public void setPlainNumber(String plainNumber) {
         this.number = plainNumber;
         if (plainNumber != null && plainNumber.length() >= 4) {
@@ -71,4 +91,9 @@ public class Card {
         return "**** **** **** " + last4;
     }
 
+    // A card stays valid through the last day of its expiry month
+    public boolean isExpiredAt(YearMonth now) {
+        return YearMonth.of(expiryYear, expiryMonth).isBefore(now);
+    }
+
 }
@@ -2,6 +2,10 @@ package com.example.bankcards.entity;
 
 import java.util.List;
 
+import org.hibernate.annotations.ColumnDefault;
+
+import com.example.bankcards.util.FullNames;
+
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
@@ -9,8 +13,13 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
@@ -18,7 +27,9 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        @Index(name = "idx_users_full_name_normalized_id", columnList = "full_name_normalized, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -39,6 +50,11 @@ public class User {
     @Column(nullable = false)
     private String fullName;
 
+    // Byte-order collation, so the index serves prefix ranges whatever the database locale
+    @Setter(AccessLevel.NONE)
+    @Column(name = "full_name_normalized", columnDefinition = "varchar(255) collate \"C\"")
+    private String fullNameNormalized;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private Role role;
@@ -46,4 +62,15 @@ public class User {
     @OneToMany(mappedBy = "owner", cascade = CascadeType.ALL)
     private List<Card> cards;
 
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @PrePersist
+    @PreUpdate
+    void normalizeFullName() {
+        fullNameNormalized = FullNames.normalize(fullName);
+    }
+
 }
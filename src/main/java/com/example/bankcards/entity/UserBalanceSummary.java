@@ -0,0 +1,34 @@
+package com.example.bankcards.entity;
+
+import java.math.BigDecimal;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// Running card count and balance per owner, kept in step with the cards table
+// by BalanceSummaryService inside the transaction that changes the cards
+@Entity
+@Table(name = "user_balance_summary")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBalanceSummary {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "card_count", nullable = false)
+    private long cardCount;
+
+    @Column(name = "total_balance", precision = 19, scale = 2, nullable = false)
+    private BigDecimal totalBalance;
+
+}
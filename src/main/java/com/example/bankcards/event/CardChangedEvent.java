@@ -0,0 +1,7 @@
+package com.example.bankcards.event;
+
+import java.util.UUID;
+
+public record CardChangedEvent(UUID cardId, Long ownerId) {
+
+}
@@ -0,0 +1,7 @@
+package com.example.bankcards.event;
+
+import java.util.UUID;
+
+public record CardRemovedEvent(UUID cardId, Long ownerId) {
+
+}
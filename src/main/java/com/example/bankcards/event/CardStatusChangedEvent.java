@@ -0,0 +1,10 @@
+package com.example.bankcards.event;
+
+import java.util.UUID;
+
+import com.example.bankcards.entity.CardStatus;
+
+// For bulk status changes made in SQL, where the full card state is never loaded
+public record CardStatusChangedEvent(UUID cardId, Long ownerId, CardStatus status) {
+
+}
@@ -0,0 +1,8 @@
+package com.example.bankcards.event;
+
+import com.example.bankcards.dto.CardDto;
+
+// Carries the new state, so subscribers can be notified without reloading the card
+public record CardUpdatedEvent(CardDto card, Long ownerId) {
+
+}
@@ -0,0 +1,5 @@
+package com.example.bankcards.event;
+
+public record UserChangedEvent(Long userId) {
+
+}
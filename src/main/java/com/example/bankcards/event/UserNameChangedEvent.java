@@ -0,0 +1,6 @@
+package com.example.bankcards.event;
+
+// Null old name for a new user, null new name for a deleted one
+public record UserNameChangedEvent(String oldFullName, String newFullName) {
+
+}
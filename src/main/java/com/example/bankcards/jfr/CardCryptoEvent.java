@@ -0,0 +1,22 @@
+package com.example.bankcards.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("bankcards.CardCrypto")
+@Label("Card Number Crypto")
+@Description("Encryption or decryption of a card number column value")
+public class CardCryptoEvent extends StageEvent {
+
+    @Label("Operation")
+    String operation;
+
+    public static CardCryptoEvent start(String operation) {
+        CardCryptoEvent event = new CardCryptoEvent();
+        event.operation = operation;
+        event.begin();
+        return event;
+    }
+
+}
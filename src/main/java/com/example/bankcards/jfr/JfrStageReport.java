@@ -0,0 +1,92 @@
+package com.example.bankcards.jfr;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Summarizes the bankcards.* events of a JFR recording into per-stage latency
+ * distributions, one row per event type, stage or operation, and outcome.
+ * Depends only on the JDK, so it runs straight from the source file:
+ * <pre>
+ * java src/main/java/com/example/bankcards/jfr/JfrStageReport.java recording.jfr
+ * </pre>
+ */
+public final class JfrStageReport {
+
+    private static final String PREFIX = "bankcards.";
+
+    private JfrStageReport() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 1) {
+            System.err.println("Usage: JfrStageReport <recording.jfr>");
+            System.exit(2);
+        }
+        System.out.printf("%-48s %8s %10s %10s %10s %10s %10s%n", "stage", "count", "p50 us", "p90 us", "p99 us",
+                "max us", "total ms");
+        summarize(Path.of(args[0])).forEach((key, stats) -> System.out.printf(
+                "%-48s %8d %10.1f %10.1f %10.1f %10.1f %10.1f%n", key, stats.count(),
+                stats.percentile(0.50) / 1e3, stats.percentile(0.90) / 1e3, stats.percentile(0.99) / 1e3,
+                stats.max() / 1e3, stats.total() / 1e6));
+    }
+
+    public static Map<String, Stats> summarize(Path recording) throws IOException {
+        Map<String, List<Long>> durations = new TreeMap<>();
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                if (event.getEventType().getName().startsWith(PREFIX))
+                    durations.computeIfAbsent(key(event), k -> new ArrayList<>()).add(event.getDuration().toNanos());
+            }
+        }
+        Map<String, Stats> result = new TreeMap<>();
+        durations.forEach((key, values) -> result.put(key, Stats.of(values)));
+        return result;
+    }
+
+    // e.g. "TransferStage load ok" or "CardCrypto decrypt ok"
+    private static String key(RecordedEvent event) {
+        StringBuilder key = new StringBuilder(event.getEventType().getName().substring(PREFIX.length()));
+        for (String field : List.of("stage", "operation", "outcome")) {
+            if (event.hasField(field))
+                key.append(' ').append(event.getString(field));
+        }
+        return key.toString();
+    }
+
+    public record Stats(long[] sortedNanos) {
+
+        static Stats of(List<Long> values) {
+            long[] nanos = values.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(nanos);
+            return new Stats(nanos);
+        }
+
+        public int count() {
+            return sortedNanos.length;
+        }
+
+        public long percentile(double p) {
+            return sortedNanos[(int) Math.max(0, Math.ceil(p * sortedNanos.length) - 1)];
+        }
+
+        public long max() {
+            return sortedNanos[sortedNanos.length - 1];
+        }
+
+        public long total() {
+            return Arrays.stream(sortedNanos).sum();
+        }
+
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.example.bankcards.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("bankcards.JwtParse")
+@Label("JWT Parse")
+@Description("Signature check and claims parsing of a bearer token")
+public class JwtParseEvent extends StageEvent {
+
+    public static JwtParseEvent start() {
+        JwtParseEvent event = new JwtParseEvent();
+        event.begin();
+        return event;
+    }
+
+}
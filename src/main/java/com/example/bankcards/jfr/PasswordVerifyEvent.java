@@ -0,0 +1,18 @@
+package com.example.bankcards.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("bankcards.PasswordVerify")
+@Label("Password Verify")
+@Description("Password hash check on login")
+public class PasswordVerifyEvent extends StageEvent {
+
+    public static PasswordVerifyEvent start() {
+        PasswordVerifyEvent event = new PasswordVerifyEvent();
+        event.begin();
+        return event;
+    }
+
+}
@@ -0,0 +1,25 @@
+package com.example.bankcards.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+// Common shape of the bankcards.* events: a timed stage that ends with an outcome
+@Category("Bankcards")
+@StackTrace(false)
+public abstract class StageEvent extends Event {
+
+    @Label("Outcome")
+    String outcome;
+
+    public void end(String outcome) {
+        this.outcome = outcome;
+        commit();
+    }
+
+    public void fail(Throwable ex) {
+        end(ex.getClass().getSimpleName());
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.example.bankcards.jfr;
+
+import java.util.UUID;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("bankcards.TransferStage")
+@Label("Transfer Stage")
+@Description("One phase of a card-to-card transfer: load, validate, persist or commit")
+public class TransferStageEvent extends StageEvent {
+
+    @Label("Stage")
+    String stage;
+
+    @Label("From Card Hash")
+    int fromCardHash;
+
+    @Label("To Card Hash")
+    int toCardHash;
+
+    public static TransferStageEvent start(String stage, UUID fromCardId, UUID toCardId) {
+        TransferStageEvent event = new TransferStageEvent();
+        event.stage = stage;
+        // Hashes are enough to correlate stages of one transfer without putting card ids into recordings
+        event.fromCardHash = fromCardId.hashCode();
+        event.toCardHash = toCardId.hashCode();
+        event.begin();
+        return event;
+    }
+
+}
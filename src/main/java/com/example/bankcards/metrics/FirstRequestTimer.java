@@ -0,0 +1,43 @@
+package com.example.bankcards.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+
+// Next to Boot's application.started.time and application.ready.time; probes on /actuator do not count
+@Component
+public class FirstRequestTimer implements ApplicationListener<ServletRequestHandledEvent> {
+
+    public static final String METER = "application.first.request.time";
+
+    private static final Logger logger = LoggerFactory.getLogger(FirstRequestTimer.class);
+
+    private final AtomicLong uptimeMillis = new AtomicLong(-1);
+
+    public FirstRequestTimer(MeterRegistry meterRegistry) {
+        TimeGauge.builder(METER, uptimeMillis, TimeUnit.MILLISECONDS,
+                        millis -> millis.get() < 0 ? Double.NaN : millis.get())
+                .description("Time from JVM start until the first API request was served")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onApplicationEvent(ServletRequestHandledEvent event) {
+        if (uptimeMillis.get() >= 0 || event.getRequestUrl().startsWith("/actuator"))
+            return;
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        if (uptimeMillis.compareAndSet(-1, uptime))
+            logger.info("First request ({} {}) served {} ms after JVM start", event.getMethod(),
+                    event.getRequestUrl(), uptime);
+    }
+
+}
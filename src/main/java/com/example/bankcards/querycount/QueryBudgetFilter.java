@@ -0,0 +1,86 @@
+package com.example.bankcards.querycount;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.example.bankcards.config.QueryBudgetConfig;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Ahead of the security chain, so the JWT user lookup counts towards the request
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class QueryBudgetFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "X-Query-Count";
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryBudgetFilter.class);
+
+    private final QueryBudgetConfig config;
+    private final MeterRegistry meterRegistry;
+
+    public QueryBudgetFilter(QueryBudgetConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !config.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryCounter.start();
+        HttpServletResponse counted = config.isExposeHeader() ? new HeaderWrapper(response) : response;
+        try {
+            filterChain.doFilter(request, counted);
+        } finally {
+            if (counted instanceof HeaderWrapper wrapper && !response.isCommitted())
+                wrapper.onResponseCommitted();
+            check(request, QueryCounter.stop());
+        }
+    }
+
+    private void check(HttpServletRequest request, int count) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null)
+            return;
+        String endpoint = request.getMethod() + " " + pattern;
+        meterRegistry.summary("http.server.queries", "endpoint", endpoint).record(count);
+
+        int budget = config.budgetFor(endpoint);
+        if (count > budget) {
+            meterRegistry.counter("http.server.queries.over.budget", "endpoint", endpoint).increment();
+            logger.warn("{} ran {} SQL statements, budget is {}", endpoint, count, budget);
+        }
+    }
+
+    // Sets the header just before the response is committed, when the count is final for everything but streams
+    private static final class HeaderWrapper extends OnCommittedResponseWrapper {
+
+        HeaderWrapper(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            setHeader(HEADER, String.valueOf(QueryCounter.current()));
+        }
+
+    }
+
+}
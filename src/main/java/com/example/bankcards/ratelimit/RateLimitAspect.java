@@ -0,0 +1,44 @@
+package com.example.bankcards.ratelimit;
+
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Before;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import com.example.bankcards.security.CustomUserDetails;
+
+@Aspect
+@Component
+public class RateLimitAspect {
+
+    private final RateLimiter rateLimiter;
+
+    public RateLimitAspect(RateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Before("@annotation(rateLimited)")
+    public void limit(RateLimited rateLimited) {
+        rateLimiter.acquire(rateLimited.value(), resolveKey(rateLimited.key()));
+    }
+
+    private Object resolveKey(RateLimitKey key) {
+        if (key == RateLimitKey.USER) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.getPrincipal() instanceof CustomUserDetails details)
+                return details.getId();
+        }
+        return "ip:" + clientIp();
+    }
+
+    // Proxies are honoured only through server.forward-headers-strategy, never by trusting X-Forwarded-For here
+    private String clientIp() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)
+            return attributes.getRequest().getRemoteAddr();
+        return "unknown";
+    }
+
+}
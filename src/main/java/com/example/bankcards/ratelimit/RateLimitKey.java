@@ -0,0 +1,7 @@
+package com.example.bankcards.ratelimit;
+
+public enum RateLimitKey {
+    // Authenticated user id, falling back to the client IP for anonymous calls
+    USER,
+    IP
+}
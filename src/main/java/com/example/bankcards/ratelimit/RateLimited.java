@@ -0,0 +1,17 @@
+package com.example.bankcards.ratelimit;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// Limits calls per user or per client IP; the limit name refers to rate-limit.limits in application.yml
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RateLimited {
+
+    String value();
+
+    RateLimitKey key() default RateLimitKey.USER;
+
+}
@@ -0,0 +1,88 @@
+package com.example.bankcards.ratelimit;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.bankcards.config.RateLimitConfig;
+import com.example.bankcards.exception.RateLimitExceededException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Component
+public class RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    private final RateLimitConfig config;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Buckets> limits = new ConcurrentHashMap<>();
+
+    public RateLimiter(RateLimitConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void acquire(String limit, Object key) {
+        if (!config.isEnabled())
+            return;
+        Buckets buckets = limits.get(limit);
+        if (buckets == null) {
+            RateLimitConfig.Limit policy = config.getLimits().get(limit);
+            if (policy == null)
+                return;
+            buckets = limits.computeIfAbsent(limit, l -> new Buckets(policy));
+        }
+
+        long now = System.nanoTime();
+        long waitNanos = buckets.get(key, now).tryAcquire(now);
+        if (waitNanos > 0) {
+            meterRegistry.counter("ratelimit.rejected", "limit", limit).increment();
+            logger.info("Rate limit {} exceeded for {}", limit, key);
+            throw new RateLimitExceededException("Too many requests, please retry later",
+                    Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1)));
+        }
+    }
+
+    // Idle buckets are swept here rather than with expireAfterAccess, which would put
+    // a clock read and access-order bookkeeping on every request
+    @Scheduled(fixedDelayString = "${rate-limit.sweep-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        long idleNanos = config.getIdleTimeout().toNanos();
+        limits.values().forEach(buckets -> buckets.cache.asMap().values()
+                .removeIf(bucket -> bucket.isIdle(now, idleNanos)));
+    }
+
+    // One size-bounded map per limit; under pressure Caffeine keeps the frequently hit keys
+    private class Buckets {
+
+        private final int capacity;
+        private final long refillNanos;
+        private final Cache<Object, TokenBucket> cache;
+
+        Buckets(RateLimitConfig.Limit policy) {
+            this.capacity = policy.getCapacity();
+            this.refillNanos = policy.getRefillPeriod().toNanos();
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(config.getMaxKeys())
+                    // Amortised maintenance on the caller instead of waking a pool thread
+                    .executor(Runnable::run)
+                    .build();
+        }
+
+        TokenBucket get(Object key, long now) {
+            TokenBucket bucket = cache.getIfPresent(key);
+            return bucket != null ? bucket : cache.get(key, k -> new TokenBucket(capacity, refillNanos, now));
+        }
+
+    }
+
+}
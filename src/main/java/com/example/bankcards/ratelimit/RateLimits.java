@@ -0,0 +1,11 @@
+package com.example.bankcards.ratelimit;
+
+public final class RateLimits {
+
+    public static final String LOGIN = "login";
+    public static final String TRANSFER = "transfer";
+
+    private RateLimits() {
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.example.bankcards.ratelimit;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Lock-free token bucket in its GCRA form: the whole state is one "theoretical
+ * arrival time", updated with a CAS, so there is nothing to refill on a timer.
+ * A full bucket holds {@code capacity} tokens and regains one every
+ * {@code refillNanos}.
+ */
+public class TokenBucket {
+
+    private static final VarHandle THEORETICAL_ARRIVAL;
+
+    static {
+        try {
+            THEORETICAL_ARRIVAL = MethodHandles.lookup().findVarHandle(TokenBucket.class, "theoreticalArrival",
+                    long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final long refillNanos;
+    private final long burstNanos;
+    // A plain field behind a VarHandle rather than an AtomicLong: one object, one cache line
+    private volatile long theoreticalArrival;
+
+    public TokenBucket(int capacity, long refillNanos, long nowNanos) {
+        if (capacity < 1 || refillNanos < 1)
+            throw new IllegalArgumentException("Token bucket needs a positive capacity and refill period");
+        this.refillNanos = refillNanos;
+        this.burstNanos = refillNanos * (capacity - 1);
+        this.theoreticalArrival = nowNanos;
+    }
+
+    // Takes a token and returns 0, or returns how long to wait until one is available
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = theoreticalArrival;
+            long start = current - nowNanos > 0 ? current : nowNanos;
+            long waitNanos = start - burstNanos - nowNanos;
+            if (waitNanos > 0)
+                return waitNanos;
+            if (THEORETICAL_ARRIVAL.compareAndSet(this, current, start + refillNanos))
+                return 0;
+        }
+    }
+
+    // Full since at least idleNanos ago, so dropping it and starting a new bucket changes nothing
+    public boolean isIdle(long nowNanos, long idleNanos) {
+        return nowNanos - theoreticalArrival > idleNanos;
+    }
+
+}
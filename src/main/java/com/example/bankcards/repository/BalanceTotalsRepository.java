@@ -0,0 +1,20 @@
+package com.example.bankcards.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.example.bankcards.entity.BalanceTotals;
+
+public interface BalanceTotalsRepository extends JpaRepository<BalanceTotals, Integer> {
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO balance_totals (id, card_count, total_balance)
+            SELECT 1, count(*), coalesce(sum(balance), 0) FROM cards
+            ON CONFLICT (id) DO UPDATE
+            SET card_count = EXCLUDED.card_count, total_balance = EXCLUDED.total_balance
+            """, nativeQuery = true)
+    void rebuild();
+
+}
@@ -1,24 +1,59 @@
 package com.example.bankcards.repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 
+import com.example.bankcards.dto.BalanceTotalsDto;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.User;
 
-public interface CardRepository extends JpaRepository<Card, UUID> {
+import jakarta.persistence.LockModeType;
+
+public interface CardRepository extends JpaRepository<Card, UUID>, JpaSpecificationExecutor<Card> {
 
     Page<Card> findByOwner(User owner, Pageable pageable);
 
     Page<Card> findByOwnerAndStatus(User owner, CardStatus status, Pageable pageable);
 
-    Page<Card> findByIdAndOwner(User owner, UUID id, Pageable pageable);
+    @EntityGraph(attributePaths = "owner")
+    Optional<Card> findWithOwnerById(UUID id);
+
+    @Query("select c from Card c join fetch c.owner where c.id = :id and c.owner.id = :ownerId")
+    Optional<Card> findByIdAndOwnerId(UUID id, Long ownerId);
+
+    @Query("select c from Card c join fetch c.owner where c.id in :ids")
+    List<Card> findAllWithOwnerByIdIn(Collection<UUID> ids);
+
+    @Query("select c from Card c join fetch c.owner where c.id in :ids and c.owner.id = :ownerId")
+    List<Card> findAllByIdInAndOwnerId(Collection<UUID> ids, Long ownerId);
+
+    @Query(value = "select c from Card c join fetch c.owner where c.owner.id = :ownerId",
+            countQuery = "select count(c) from Card c where c.owner.id = :ownerId")
+    Page<Card> findByOwnerId(Long ownerId, Pageable pageable);
 
     List<Card> findByOwnerAndLast4(User owner, String last4);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Card c where c.id = :id")
+    Optional<Card> findForUpdateById(UUID id);
+
+    // Rows are locked in id order, so two transfers over the same pair of cards cannot deadlock
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Card c where c.id in :ids order by c.id")
+    List<Card> findAllForUpdateByIdIn(Collection<UUID> ids);
+
+    @Query("select new com.example.bankcards.dto.BalanceTotalsDto(count(c), coalesce(sum(c.balance), 0)) from Card c")
+    BalanceTotalsDto sumBalances();
+
 }
@@ -0,0 +1,66 @@
+package com.example.bankcards.repository;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.data.jpa.domain.Specification;
+
+import com.example.bankcards.dto.CardSearchFilter;
+import com.example.bankcards.entity.Card;
+
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public final class CardSpecifications {
+
+    private CardSpecifications() {
+    }
+
+    public static Specification<Card> matching(CardSearchFilter filter, UUID after) {
+        return (root, query, cb) -> {
+            if (query.getResultType() == Card.class)
+                root.fetch("owner");
+
+            List<Predicate> predicates = new ArrayList<>();
+            if (after != null)
+                predicates.add(cb.greaterThan(root.get("id"), after));
+            if (filter.status() != null)
+                predicates.add(cb.equal(root.get("status"), filter.status()));
+            if (filter.ownerId() != null)
+                predicates.add(cb.equal(root.get("owner").get("id"), filter.ownerId()));
+            if (filter.last4() != null)
+                predicates.add(cb.equal(root.get("last4"), filter.last4()));
+            if (filter.expiryFrom() != null)
+                predicates.add(expiryNotBefore(root, cb, filter.expiryFrom()));
+            if (filter.expiryTo() != null)
+                predicates.add(expiryNotAfter(root, cb, filter.expiryTo()));
+            if (filter.minBalance() != null)
+                predicates.add(cb.greaterThanOrEqualTo(root.get("balance"), filter.minBalance()));
+            if (filter.maxBalance() != null)
+                predicates.add(cb.lessThanOrEqualTo(root.get("balance"), filter.maxBalance()));
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    // (year, month) >= (y, m), written so that the leading year bound can drive idx_cards_expiry
+    private static Predicate expiryNotBefore(Root<Card> root, CriteriaBuilder cb, YearMonth from) {
+        Path<Integer> year = root.get("expiryYear");
+        Path<Integer> month = root.get("expiryMonth");
+        return cb.and(
+                cb.greaterThanOrEqualTo(year, from.getYear()),
+                cb.or(cb.greaterThan(year, from.getYear()), cb.greaterThanOrEqualTo(month, from.getMonthValue())));
+    }
+
+    private static Predicate expiryNotAfter(Root<Card> root, CriteriaBuilder cb, YearMonth to) {
+        Path<Integer> year = root.get("expiryYear");
+        Path<Integer> month = root.get("expiryMonth");
+        return cb.and(
+                cb.lessThanOrEqualTo(year, to.getYear()),
+                cb.or(cb.lessThan(year, to.getYear()), cb.lessThanOrEqualTo(month, to.getMonthValue())));
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.example.bankcards.repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.example.bankcards.entity.UserBalanceSummary;
+
+public interface UserBalanceSummaryRepository extends JpaRepository<UserBalanceSummary, Long> {
+
+    // Owner row first, totals row second: the same lock order as removeUser
+    @Modifying
+    @Query(value = """
+            WITH summary AS (
+                INSERT INTO user_balance_summary (user_id, card_count, total_balance)
+                VALUES (:userId, :cardDelta, :balanceDelta)
+                ON CONFLICT (user_id) DO UPDATE
+                SET card_count = user_balance_summary.card_count + EXCLUDED.card_count,
+                    total_balance = user_balance_summary.total_balance + EXCLUDED.total_balance
+                RETURNING user_id)
+            UPDATE balance_totals
+            SET card_count = card_count + :cardDelta, total_balance = total_balance + :balanceDelta
+            WHERE id = 1 AND EXISTS (SELECT 1 FROM summary)
+            """, nativeQuery = true)
+    int applyCardDelta(Long userId, long cardDelta, BigDecimal balanceDelta);
+
+    @Modifying
+    @Query(value = """
+            WITH removed AS (
+                DELETE FROM user_balance_summary WHERE user_id = :userId
+                RETURNING card_count, total_balance)
+            UPDATE balance_totals t
+            SET card_count = t.card_count - r.card_count, total_balance = t.total_balance - r.total_balance
+            FROM removed r
+            WHERE t.id = 1
+            """, nativeQuery = true)
+    int removeUser(Long userId);
+
+    // Blocks card writes and other rebuilds until the rebuilding transaction commits;
+    // SHARE would let two rebuilds run side by side
+    @Modifying
+    @Query(value = "LOCK TABLE cards IN SHARE ROW EXCLUSIVE MODE", nativeQuery = true)
+    void lockCards();
+
+    @Modifying
+    @Query(value = """
+            INSERT INTO user_balance_summary (user_id, card_count, total_balance)
+            SELECT owner_id, count(*), sum(balance) FROM cards GROUP BY owner_id
+            """, nativeQuery = true)
+    int insertFromCards();
+
+    @Query(value = """
+            SELECT coalesce(c.owner_id, s.user_id)
+            FROM (SELECT owner_id, count(*) AS card_count, sum(balance) AS total_balance
+                  FROM cards GROUP BY owner_id) c
+            FULL JOIN user_balance_summary s ON s.user_id = c.owner_id
+            WHERE coalesce(c.card_count, 0) <> coalesce(s.card_count, 0)
+               OR coalesce(c.total_balance, 0) <> coalesce(s.total_balance, 0)
+            ORDER BY 1
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findMismatchedUserIds(int limit);
+
+}
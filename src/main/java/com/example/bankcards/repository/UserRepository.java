@@ -1,17 +1,95 @@
 package com.example.bankcards.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 
 import com.example.bankcards.entity.User;
 
+import jakarta.persistence.LockModeType;
+
 public interface UserRepository extends JpaRepository<User, Long> {
 
     Optional<User> findByUsername(String username);
 
     Optional<User> findByFullName(String fullName);
 
+    // Keyset pages over idx_users_full_name_normalized_id; [from, to) is the prefix range
+    @Query("""
+            select u.id from User u
+            where u.fullNameNormalized >= :from and u.fullNameNormalized < :to
+            order by u.fullNameNormalized, u.id""")
+    List<Long> findIdsByFullNamePrefix(String from, String to, Limit limit);
+
+    @Query("""
+            select u.id from User u
+            where u.fullNameNormalized >= :from and u.fullNameNormalized < :to
+              and (u.fullNameNormalized, u.id) > (:afterName, :afterId)
+            order by u.fullNameNormalized, u.id""")
+    List<Long> findIdsByFullNamePrefixAfter(String from, String to, String afterName, Long afterId, Limit limit);
+
+    // Prefixes with no upper bound (only U+10FFFF characters): the range runs to the end of the index
+    @Query("""
+            select u.id from User u
+            where u.fullNameNormalized >= :from
+            order by u.fullNameNormalized, u.id""")
+    List<Long> findIdsByFullNameFrom(String from, Limit limit);
+
+    @Query("""
+            select u.id from User u
+            where u.fullNameNormalized >= :from
+              and (u.fullNameNormalized, u.id) > (:afterName, :afterId)
+            order by u.fullNameNormalized, u.id""")
+    List<Long> findIdsByFullNameFromAfter(String from, String afterName, Long afterId, Limit limit);
+
+    @Query("select u.fullNameNormalized from User u where u.id = :id")
+    Optional<String> findFullNameNormalizedById(Long id);
+
     boolean existsByUsername(String username);
 
+    @Query("select u.username from User u where u.username in :usernames")
+    List<String> findExistingUsernames(Collection<String> usernames);
+
+    // Stops at the first row, unlike count()
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM users)", nativeQuery = true)
+    boolean existsAny();
+
+    @EntityGraph(attributePaths = "cards")
+    List<User> findAllWithCardsByIdIn(Collection<Long> ids);
+
+    @Query("select u.version from User u where u.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    // UserDto lists the user's cards, so adding or removing a card is a new user version
+    @Modifying
+    @Query("update User u set u.version = u.version + 1 where u.id = :id")
+    int incrementVersion(Long id);
+
+    @Modifying
+    @Query("update User u set u.version = u.version + 1 where u.id in :ids")
+    int incrementVersions(Collection<Long> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select u from User u where u.id = :id")
+    Optional<User> findForUpdateById(Long id);
+
+    // Without loading the entity; the lock keeps cards from being added until the delete commits
+    @Query(value = "SELECT full_name FROM users WHERE id = :id FOR UPDATE", nativeQuery = true)
+    Optional<String> findFullNameForUpdateById(Long id);
+
+    // Cards go in the same statement, so this works whether or not fk_cards_user_id cascades
+    @Modifying
+    @Query(value = """
+            WITH removed_cards AS (DELETE FROM cards WHERE owner_id = :id)
+            DELETE FROM users WHERE id = :id
+            """, nativeQuery = true)
+    int deleteWithCardsById(Long id);
+
 }
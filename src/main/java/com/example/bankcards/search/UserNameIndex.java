@@ -0,0 +1,117 @@
+package com.example.bankcards.search;
+
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.bankcards.event.UserNameChangedEvent;
+import com.example.bankcards.util.FullNames;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+// Distinct normalized full names in sorted order for autocomplete. Local changes are applied after
+// commit; changes made on other nodes, or racing with a rebuild, show up after the next rebuild.
+@Component
+public class UserNameIndex implements MeterBinder {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserNameIndex.class);
+
+    static final String REBUILD_SQL = """
+            SELECT full_name_normalized, min(full_name) AS full_name, count(*) AS users
+            FROM users
+            WHERE full_name_normalized IS NOT NULL
+            GROUP BY full_name_normalized
+            ORDER BY full_name_normalized
+            LIMIT ?
+            """;
+
+    // One of the full names behind a normalized key, and how many users have it
+    private record Name(String fullName, long users) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int maxNames;
+
+    private volatile ConcurrentSkipListMap<String, Name> names =
+            new ConcurrentSkipListMap<>(FullNames.CODE_POINT_ORDER);
+
+    public UserNameIndex(JdbcTemplate jdbcTemplate,
+            @Value("${user-search.autocomplete.max-names:1000000}") int maxNames) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.maxNames = maxNames;
+    }
+
+    public List<String> suggest(String prefix, int limit) {
+        String key = FullNames.normalize(prefix);
+        if (key == null || key.isEmpty())
+            return List.of();
+        String upperBound = FullNames.prefixUpperBound(key);
+        NavigableMap<String, Name> matches = upperBound == null ? names.tailMap(key, true)
+                : names.subMap(key, upperBound);
+        return matches.values().stream()
+                .limit(limit)
+                .map(Name::fullName)
+                .toList();
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    @Scheduled(fixedDelayString = "${user-search.autocomplete.rebuild-interval:10m}",
+            initialDelayString = "${user-search.autocomplete.rebuild-interval:10m}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        ConcurrentSkipListMap<String, Name> rebuilt = new ConcurrentSkipListMap<>(FullNames.CODE_POINT_ORDER);
+        jdbcTemplate.query(REBUILD_SQL, rs -> {
+            rebuilt.put(rs.getString("full_name_normalized"),
+                    new Name(rs.getString("full_name"), rs.getLong("users")));
+        }, maxNames);
+        names = rebuilt;
+        if (rebuilt.size() == maxNames)
+            logger.warn("Autocomplete index is full at {} names; later names are not suggested", maxNames);
+        logger.info("Autocomplete index rebuilt: {} names in {} ms", rebuilt.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserNameChanged(UserNameChangedEvent event) {
+        if (event.oldFullName() != null)
+            remove(event.oldFullName());
+        if (event.newFullName() != null)
+            add(event.newFullName());
+    }
+
+    void add(String fullName) {
+        String key = FullNames.normalize(fullName);
+        ConcurrentSkipListMap<String, Name> current = names;
+        if (current.size() >= maxNames && !current.containsKey(key))
+            return;
+        current.merge(key, new Name(fullName, 1), (existing, added) -> new Name(existing.fullName(),
+                existing.users() + 1));
+    }
+
+    void remove(String fullName) {
+        names.computeIfPresent(FullNames.normalize(fullName), (key, existing) -> existing.users() > 1
+                ? new Name(existing.fullName(), existing.users() - 1)
+                : null);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("users.autocomplete.names", this, UserNameIndex::size)
+                .description("Distinct full names in the autocomplete index")
+                .register(registry);
+    }
+
+}
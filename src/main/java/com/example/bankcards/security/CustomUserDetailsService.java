@@ -8,18 +8,24 @@ import org.springframework.stereotype.Service;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.repository.UserRepository;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final UserRepository userRepository;
+    // Runs on every authenticated request, not only at login
+    private final Timer loadTimer;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    public CustomUserDetailsService(UserRepository userRepository, MeterRegistry meterRegistry) {
         this.userRepository = userRepository;
+        this.loadTimer = meterRegistry.timer("security.user.load");
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        User user = loadTimer.record(() -> userRepository.findByUsername(username))
                 .orElseThrow(() -> new UsernameNotFoundException("Invalid username or password"));
         return new CustomUserDetails(user);
     }
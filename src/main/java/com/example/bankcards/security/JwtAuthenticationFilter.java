@@ -11,6 +11,11 @@ import org.springframework.security.web.authentication.WebAuthenticationDetailsS
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
+import com.example.bankcards.timing.ServerTiming;
+import com.example.bankcards.timing.ServerTiming.Stage;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -22,10 +27,13 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
     private final JwtUtil jwtUtil;
     private final CustomUserDetailsService userDetailsService;
+    private final MeterRegistry meterRegistry;
 
-    public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtUtil jwtUtil, CustomUserDetailsService userDetailsService,
+            MeterRegistry meterRegistry) {
         this.jwtUtil = jwtUtil;
         this.userDetailsService = userDetailsService;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
@@ -44,12 +52,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             return;
         }
 
+        // Token parsing plus the user lookup; the rest of the chain is not included
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "rejected";
         try {
+            ServerTiming.start(Stage.JWT);
             String username = jwtUtil.extractUsername(token);
+            ServerTiming.stop(Stage.JWT);
             if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                if (jwtUtil.validateToken(token)) {
+                ServerTiming.start(Stage.JWT);
+                boolean valid = jwtUtil.validateToken(token);
+                ServerTiming.stop(Stage.JWT);
+                if (valid) {
+                    ServerTiming.start(Stage.PRINCIPAL);
                     UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                    ServerTiming.stop(Stage.PRINCIPAL);
 
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
@@ -59,11 +77,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                     authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                     SecurityContextHolder.getContext().setAuthentication(authToken);
                     logger.debug("Authenticated user: '{}' with roles: {}", username, userDetails.getAuthorities());
+                    outcome = "authenticated";
                 }
 
             }
         } catch (Exception e) {
+            // Closes whichever stage threw; stopping a stage that is not running does nothing
+            ServerTiming.stop(Stage.JWT);
+            ServerTiming.stop(Stage.PRINCIPAL);
             logger.warn("JWT authentication failed: {}", e.getMessage());
+        } finally {
+            sample.stop(meterRegistry.timer("security.jwt", "outcome", outcome));
         }
 
         filterChain.doFilter(request, response);
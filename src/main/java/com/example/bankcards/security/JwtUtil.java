@@ -6,7 +6,10 @@ import java.util.Date;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.example.bankcards.jfr.JwtParseEvent;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.Jws;
 import io.jsonwebtoken.JwtException;
 import io.jsonwebtoken.Jwts;
@@ -56,10 +59,21 @@ public class JwtUtil {
     }
 
     private Jws<Claims> parseClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token);
+        JwtParseEvent event = JwtParseEvent.start();
+        try {
+            Jws<Claims> claims = Jwts.parserBuilder()
+                    .setSigningKey(key)
+                    .build()
+                    .parseClaimsJws(token);
+            event.end("valid");
+            return claims;
+        } catch (ExpiredJwtException e) {
+            event.end("expired");
+            throw e;
+        } catch (RuntimeException e) {
+            event.fail(e);
+            throw e;
+        }
     }
 
 }
@@ -0,0 +1,43 @@
+package com.example.bankcards.security;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.bankcards.jfr.PasswordVerifyEvent;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+// BCrypt dominates login latency by design; the timers show how much
+public class TimedPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final Timer encodeTimer;
+    private final Timer matchesTimer;
+
+    public TimedPasswordEncoder(PasswordEncoder delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.encodeTimer = meterRegistry.timer("security.password", "operation", "encode");
+        this.matchesTimer = meterRegistry.timer("security.password", "operation", "matches");
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return encodeTimer.record(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return matchesTimer.record(() -> {
+            PasswordVerifyEvent event = PasswordVerifyEvent.start();
+            boolean matches = delegate.matches(rawPassword, encodedPassword);
+            event.end(matches ? "match" : "mismatch");
+            return matches;
+        });
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.example.bankcards.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.example.bankcards.dto.BalanceReconciliationDto;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@Component
+public class BalanceReconciliationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(BalanceReconciliationJob.class);
+
+    private final BalanceSummaryService balanceSummaryService;
+    private final MeterRegistry meterRegistry;
+
+    public BalanceReconciliationJob(BalanceSummaryService balanceSummaryService, MeterRegistry meterRegistry) {
+        this.balanceSummaryService = balanceSummaryService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(cron = "${balances.reconciliation.cron:0 30 1 * * *}")
+    public void run() {
+        BalanceReconciliationDto result = balanceSummaryService.reconcile();
+        meterRegistry.counter("balances.reconciliation.runs", "result", result.consistent() ? "consistent" : "drift")
+                .increment();
+        if (result.consistent()) {
+            logger.info("Balance reconciliation: aggregates match cards ({} cards)", result.actual().cardCount());
+        } else {
+            logger.warn("Balance reconciliation: drift detected, recorded {}, actual {}, users {}",
+                    result.recorded(), result.actual(), result.mismatchedUserIds());
+        }
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.example.bankcards.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.bankcards.dto.BalanceReconciliationDto;
+import com.example.bankcards.dto.BalanceSummaryDto;
+import com.example.bankcards.dto.BalanceTotalsDto;
+import com.example.bankcards.entity.BalanceTotals;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.UserNotFoundException;
+import com.example.bankcards.repository.BalanceTotalsRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserBalanceSummaryRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.CustomUserDetails;
+
+// Per-user and system-wide balance aggregates. The write methods must run inside
+// the transaction that changes the cards, so aggregates and cards commit together.
+@Service
+public class BalanceSummaryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BalanceSummaryService.class);
+    private static final int MAX_REPORTED_MISMATCHES = 100;
+
+    private final UserBalanceSummaryRepository summaryRepository;
+    private final BalanceTotalsRepository totalsRepository;
+    private final CardRepository cardRepository;
+    private final UserRepository userRepository;
+
+    public BalanceSummaryService(UserBalanceSummaryRepository summaryRepository,
+            BalanceTotalsRepository totalsRepository, CardRepository cardRepository, UserRepository userRepository) {
+        this.summaryRepository = summaryRepository;
+        this.totalsRepository = totalsRepository;
+        this.cardRepository = cardRepository;
+        this.userRepository = userRepository;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void cardAdded(Long userId, BigDecimal balance) {
+        applyCardDelta(userId, 1, balance);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void cardRemoved(Long userId, BigDecimal balance) {
+        applyCardDelta(userId, -1, balance.negate());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void cardsRemoved(Long userId, int count, BigDecimal balance) {
+        applyCardDelta(userId, -count, balance.negate());
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void userRemoved(Long userId) {
+        summaryRepository.removeUser(userId);
+    }
+
+    public BalanceSummaryDto getUserSummary(Long userId) {
+        User currentUser = getCurrentUser();
+        if (!currentUser.getId().equals(userId) && currentUser.getRole() != Role.ADMIN)
+            throw new SecurityException("Access denied");
+
+        return summaryRepository.findById(userId)
+                .map(summary -> new BalanceSummaryDto(userId, summary.getCardCount(), summary.getTotalBalance()))
+                .orElseGet(() -> {
+                    if (!userRepository.existsById(userId))
+                        throw new UserNotFoundException("User not found, id: " + userId);
+                    return new BalanceSummaryDto(userId, 0, BigDecimal.ZERO.setScale(2));
+                });
+    }
+
+    public BalanceTotalsDto getTotals() {
+        BalanceTotals totals = totalsRepository.findById(BalanceTotals.SINGLETON_ID)
+                .orElseThrow(() -> new IllegalStateException("Balance totals are not initialised"));
+        return new BalanceTotalsDto(totals.getCardCount(), totals.getTotalBalance());
+    }
+
+    // Both sides are read from one snapshot, so in-flight transfers cannot show up as drift
+    @Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+    public BalanceReconciliationDto reconcile() {
+        BalanceTotalsDto recorded = totalsRepository.findById(BalanceTotals.SINGLETON_ID)
+                .map(totals -> new BalanceTotalsDto(totals.getCardCount(), totals.getTotalBalance()))
+                .orElse(null);
+        BalanceTotalsDto actual = cardRepository.sumBalances();
+        List<Long> mismatched = summaryRepository.findMismatchedUserIds(MAX_REPORTED_MISMATCHES);
+
+        boolean consistent = recorded != null
+                && recorded.cardCount() == actual.cardCount()
+                && recorded.totalBalance().compareTo(actual.totalBalance()) == 0
+                && mismatched.isEmpty();
+        return new BalanceReconciliationDto(consistent, recorded, actual, mismatched);
+    }
+
+    @Transactional
+    public void rebuild() {
+        summaryRepository.lockCards();
+        rebuildLocked();
+    }
+
+    // Nodes starting together all see the totals missing; only the first to get the lock rebuilds
+    @Transactional
+    public void rebuildIfMissing() {
+        if (totalsRepository.existsById(BalanceTotals.SINGLETON_ID))
+            return;
+        summaryRepository.lockCards();
+        if (!totalsRepository.existsById(BalanceTotals.SINGLETON_ID))
+            rebuildLocked();
+    }
+
+    private void rebuildLocked() {
+        summaryRepository.deleteAllInBatch();
+        int users = summaryRepository.insertFromCards();
+        totalsRepository.rebuild();
+        logger.info("Balance aggregates rebuilt for {} users", users);
+    }
+
+    private void applyCardDelta(Long userId, long cardDelta, BigDecimal balanceDelta) {
+        if (summaryRepository.applyCardDelta(userId, cardDelta, balanceDelta) == 0)
+            logger.warn("Balance totals row is missing; system totals were not updated");
+    }
+
+    private User getCurrentUser() {
+        CustomUserDetails userDetails = (CustomUserDetails) SecurityContextHolder.getContext().getAuthentication()
+                .getPrincipal();
+        return userDetails.getUser();
+    }
+
+}
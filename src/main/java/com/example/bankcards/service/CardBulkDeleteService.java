@@ -0,0 +1,110 @@
+package com.example.bankcards.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.bankcards.dto.CardSearchFilter;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.event.CardChangedEvent;
+import com.example.bankcards.event.CardRemovedEvent;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardSpecifications;
+import com.example.bankcards.repository.UserRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Root;
+
+// Deletes the cards matching a search filter in chunks, each its own short transaction, so a large
+// delete never holds many row locks at once. Only id, owner and balance are read; card numbers are
+// never decrypted.
+@Service
+public class CardBulkDeleteService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CardBulkDeleteService.class);
+
+    private final EntityManager entityManager;
+    private final CardRepository cardRepository;
+    private final UserRepository userRepository;
+    private final BalanceSummaryService balanceSummaryService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+
+    public CardBulkDeleteService(EntityManager entityManager, CardRepository cardRepository,
+            UserRepository userRepository, BalanceSummaryService balanceSummaryService,
+            TransactionTemplate transactionTemplate, ApplicationEventPublisher eventPublisher,
+            @Value("${cards.bulk-delete.chunk-size:1000}") int chunkSize) {
+        this.entityManager = entityManager;
+        this.cardRepository = cardRepository;
+        this.userRepository = userRepository;
+        this.balanceSummaryService = balanceSummaryService;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+    }
+
+    public long deleteCards(CardSearchFilter filter) {
+        if (isEmpty(filter))
+            throw new IllegalArgumentException("At least one filter is required to delete cards");
+
+        long start = System.nanoTime();
+        long total = 0;
+        int chunk;
+        do {
+            chunk = transactionTemplate.execute(status -> deleteChunk(filter));
+            total += chunk;
+            logger.debug("Card delete chunk: {} cards", chunk);
+        } while (chunk == chunkSize);
+        logger.info("Cards deleted by filter: {} in {} ms", total, (System.nanoTime() - start) / 1_000_000);
+        return total;
+    }
+
+    private int deleteChunk(CardSearchFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Card> card = query.from(Card.class);
+        query.multiselect(card.get("id"), card.get("owner").get("id"), card.get("balance"))
+                .where(CardSpecifications.matching(filter, null).toPredicate(card, query, cb))
+                .orderBy(cb.asc(card.get("id")));
+        List<Tuple> rows = entityManager.createQuery(query)
+                .setMaxResults(chunkSize)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        if (rows.isEmpty())
+            return 0;
+
+        cardRepository.deleteAllByIdInBatch(rows.stream().map(row -> row.get(0, UUID.class)).toList());
+        Map<Long, List<Tuple>> byOwner = rows.stream().collect(Collectors.groupingBy(row -> row.get(1, Long.class)));
+        byOwner.forEach((ownerId, cards) -> balanceSummaryService.cardsRemoved(ownerId, cards.size(),
+                cards.stream().map(row -> row.get(2, BigDecimal.class)).reduce(BigDecimal.ZERO, BigDecimal::add)));
+        userRepository.incrementVersions(byOwner.keySet());
+        rows.forEach(row -> {
+            UUID cardId = row.get(0, UUID.class);
+            Long ownerId = row.get(1, Long.class);
+            eventPublisher.publishEvent(new CardChangedEvent(cardId, ownerId));
+            eventPublisher.publishEvent(new CardRemovedEvent(cardId, ownerId));
+        });
+        return rows.size();
+    }
+
+    private static boolean isEmpty(CardSearchFilter filter) {
+        return filter.status() == null && filter.ownerId() == null && filter.last4() == null
+                && filter.expiryFrom() == null && filter.expiryTo() == null
+                && filter.minBalance() == null && filter.maxBalance() == null;
+    }
+
+}
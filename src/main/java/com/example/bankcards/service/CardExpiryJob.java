@@ -0,0 +1,151 @@
+package com.example.bankcards.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.event.CardChangedEvent;
+import com.example.bankcards.event.CardStatusChangedEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+// Moves cards past their expiry month to EXPIRED. Runs on a single connection in
+// autocommit mode, so every chunk is its own short transaction; the session-level
+// advisory lock on that connection keeps other nodes from running concurrently.
+// A run can take long on a large table, so it gets its own thread instead of
+// holding one of the scheduler's.
+@Component
+public class CardExpiryJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(CardExpiryJob.class);
+
+    static final long ADVISORY_LOCK_KEY = 0x62616e6b_63617264L;
+
+    static final String EXPIRE_CHUNK_SQL = """
+            UPDATE cards SET status = 'EXPIRED', version = version + 1
+            WHERE id IN (
+                SELECT id FROM cards
+                WHERE (expiry_year, expiry_month) < (?, ?) AND status <> 'EXPIRED'
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED)
+            RETURNING id, owner_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int chunkSize;
+    private final Timer runTimer;
+    private final Counter expiredCounter;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            new CustomizableThreadFactory("card-expiry-"));
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public CardExpiryJob(JdbcTemplate jdbcTemplate, ApplicationEventPublisher eventPublisher,
+            MeterRegistry meterRegistry, @Value("${cards.expiry.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.chunkSize = chunkSize;
+        this.runTimer = meterRegistry.timer("cards.expiry.run");
+        this.expiredCounter = meterRegistry.counter("cards.expiry.expired");
+    }
+
+    @Scheduled(cron = "${cards.expiry.cron:0 5 0 * * *}")
+    public void run() {
+        if (!running.compareAndSet(false, true)) {
+            logger.warn("Card expiry skipped: the previous run is still going");
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                expireCards(YearMonth.now());
+            } catch (RuntimeException e) {
+                logger.error("Card expiry run failed", e);
+            } finally {
+                running.set(false);
+            }
+        });
+    }
+
+    public int expireCards(YearMonth now) {
+        long start = System.nanoTime();
+        Integer expired = jdbcTemplate.execute((ConnectionCallback<Integer>) connection -> expireLocked(connection, now));
+        long elapsed = System.nanoTime() - start;
+
+        if (expired == null || expired < 0) {
+            logger.info("Card expiry skipped: another node holds the lock");
+            return 0;
+        }
+        runTimer.record(elapsed, TimeUnit.NANOSECONDS);
+        expiredCounter.increment(expired);
+        logger.info("Card expiry run: {} cards expired in {} ms", expired, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        return expired;
+    }
+
+    private int expireLocked(Connection connection, YearMonth now) throws SQLException {
+        connection.setAutoCommit(true);
+        if (!advisoryLock(connection, "SELECT pg_try_advisory_lock(?)"))
+            return -1;
+        try {
+            int total = 0;
+            try (PreparedStatement update = connection.prepareStatement(EXPIRE_CHUNK_SQL)) {
+                update.setInt(1, now.getYear());
+                update.setInt(2, now.getMonthValue());
+                update.setInt(3, chunkSize);
+                int chunk;
+                do {
+                    chunk = 0;
+                    try (ResultSet rows = update.executeQuery()) {
+                        while (rows.next()) {
+                            UUID cardId = rows.getObject(1, UUID.class);
+                            long ownerId = rows.getLong(2);
+                            eventPublisher.publishEvent(new CardChangedEvent(cardId, ownerId));
+                            eventPublisher.publishEvent(new CardStatusChangedEvent(cardId, ownerId, CardStatus.EXPIRED));
+                            chunk++;
+                        }
+                    }
+                    total += chunk;
+                    logger.debug("Card expiry chunk: {} cards", chunk);
+                } while (chunk == chunkSize);
+            }
+            return total;
+        } finally {
+            advisoryLock(connection, "SELECT pg_advisory_unlock(?)");
+        }
+    }
+
+    private boolean advisoryLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, ADVISORY_LOCK_KEY);
+            try (ResultSet result = statement.executeQuery()) {
+                return result.next() && result.getBoolean(1);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+}
@@ -2,41 +2,79 @@ package com.example.bankcards.service;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.time.YearMonth;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.bankcards.cache.CardCache;
+import com.example.bankcards.cache.CardSnapshot;
+import com.example.bankcards.concurrency.ConflictOperations;
+import com.example.bankcards.concurrency.RetryOnConflict;
+import com.example.bankcards.config.ConcurrencyConfig;
 import com.example.bankcards.dto.CardDto;
 import com.example.bankcards.dto.CardRequest;
+import com.example.bankcards.dto.CardSearchFilter;
+import com.example.bankcards.dto.CardSearchResult;
+import com.example.bankcards.dto.MultiGetResult;
+import com.example.bankcards.dto.Versioned;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.event.CardChangedEvent;
+import com.example.bankcards.event.CardRemovedEvent;
+import com.example.bankcards.event.CardUpdatedEvent;
 import com.example.bankcards.exception.CardNotFoundException;
 import com.example.bankcards.exception.InsufficientFundsException;
 import com.example.bankcards.exception.UserNotFoundException;
+import com.example.bankcards.jfr.TransferStageEvent;
 import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.CardSpecifications;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.security.CustomUserDetails;
+import com.example.bankcards.util.ETags;
 
 @Service
 public class CardService {
 
     private static final Logger logger = LoggerFactory.getLogger(CardService.class);
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final int MAX_MULTI_GET_SIZE = 100;
 
     private final UserRepository userRepository;
     private final CardRepository cardRepository;
-
-    public CardService(UserRepository userRepository, CardRepository cardRepository) {
+    private final CardCache cardCache;
+    private final BalanceSummaryService balanceSummaryService;
+    private final ConcurrencyConfig concurrencyConfig;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public CardService(UserRepository userRepository, CardRepository cardRepository, CardCache cardCache,
+            BalanceSummaryService balanceSummaryService, ConcurrencyConfig concurrencyConfig,
+            ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.cardRepository = cardRepository;
+        this.cardCache = cardCache;
+        this.balanceSummaryService = balanceSummaryService;
+        this.concurrencyConfig = concurrencyConfig;
+        this.eventPublisher = eventPublisher;
     }
 
     @Transactional
@@ -58,45 +96,101 @@ public class CardService {
         card.setStatus(CardStatus.ACTIVE);
 
         Card savedCard = cardRepository.save(card);
-        logger.debug("Created card: {}", savedCard.getId().toString());
+        balanceSummaryService.cardAdded(owner.getId(), savedCard.getBalance());
+        userRepository.incrementVersion(owner.getId());
+        logger.debug("Created card: {}", savedCard.getId());
         return toDto(savedCard);
     }
 
     public CardDto getCard(UUID cardId) {
+        return getVersionedCard(cardId).body();
+    }
+
+    // Served from the card cache, so a matching If-None-Match costs no query and no mapping
+    public Versioned<CardDto> getVersionedCard(UUID cardId) {
         User currentUser = getCurrentUser();
 
-        Card foundCard = getCardOrThrow(cardId);
+        CardSnapshot snapshot = cardCache.get(cardId, id -> toSnapshot(getAccessibleCardOrThrow(id, currentUser)));
 
-        if (!isAdmin(currentUser) && !foundCard.getOwner().getId().equals(currentUser.getId()))
-            throw new SecurityException("Access denied: card doesn't belong to you");
+        // A snapshot cached by an admin read may belong to someone else
+        if (!isAdmin(currentUser) && !snapshot.ownerId().equals(currentUser.getId()))
+            throw cardNotFound(cardId);
 
-        logger.debug("Card retrieved: {}", foundCard.getId().toString());
-        return toDto(foundCard);
+        logger.debug("Card retrieved: {}", cardId);
+        return new Versioned<>(snapshot.card(), snapshot.etag());
+    }
+
+    // Same visibility as getCard: cards the caller may not see are reported as missing
+    public MultiGetResult<CardDto, UUID> getCards(List<UUID> cardIds) {
+        if (cardIds.isEmpty() || cardIds.size() > MAX_MULTI_GET_SIZE)
+            throw new IllegalArgumentException("Number of ids must be between 1 and " + MAX_MULTI_GET_SIZE);
+        User currentUser = getCurrentUser();
+        List<UUID> requested = cardIds.stream().distinct().toList();
+
+        Map<UUID, CardSnapshot> snapshots = cardCache.getAll(requested,
+                missing -> loadAccessibleCards(missing, currentUser));
+
+        List<CardDto> found = new ArrayList<>();
+        List<UUID> missing = new ArrayList<>();
+        for (UUID cardId : requested) {
+            CardSnapshot snapshot = snapshots.get(cardId);
+            if (snapshot != null && (isAdmin(currentUser) || snapshot.ownerId().equals(currentUser.getId())))
+                found.add(snapshot.card());
+            else
+                missing.add(cardId);
+        }
+        logger.debug("Cards retrieved: {} found, {} missing", found.size(), missing.size());
+        return new MultiGetResult<>(found, missing);
     }
 
     public Page<CardDto> getUserCards(Long userId, Pageable pageable) {
         User currentUser = getCurrentUser();
-        User owner = getUserOrThrow(userId);
-        if (!currentUser.getId().equals(owner.getId()) && !isAdmin(currentUser))
+        if (!currentUser.getId().equals(userId) && !isAdmin(currentUser))
             throw new SecurityException("Access denied");
+
+        Page<Card> cards = cardRepository.findByOwnerId(userId, pageable);
+        if (cards.isEmpty() && !userRepository.existsById(userId))
+            throw new UserNotFoundException("User not found, id: " + userId);
+
         logger.debug("Page of card retrieved for user: {}", userId);
-        Page<Card> cards = cardRepository.findByOwner(owner, pageable);
-        return cards.map(this::toDto);
+        return cards.map(CardService::toDto);
     }
 
+    public CardSearchResult searchCards(CardSearchFilter filter, UUID after, int size) {
+        User currentUser = getCurrentUser();
+        if (!isAdmin(currentUser))
+            throw new SecurityException("Access denied");
+        if (size < 1 || size > MAX_SEARCH_PAGE_SIZE)
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+
+        // Keyset pagination: fetch one extra row to learn whether another page exists
+        List<Card> cards = cardRepository.findBy(CardSpecifications.matching(filter, after),
+                query -> query.sortBy(Sort.by("id")).limit(size + 1).all());
+
+        List<CardDto> content = cards.stream().limit(size).map(CardService::toDto).toList();
+        UUID nextCursor = cards.size() > size ? content.get(size - 1).id() : null;
+        logger.debug("Card search returned {} cards", content.size());
+        return new CardSearchResult(content, nextCursor);
+    }
+
+    @RetryOnConflict(ConflictOperations.CARD_STATUS)
     @Transactional
     public CardDto updateCardStatus(UUID cardId, CardStatus cardStatus) {
         User currentUser = getCurrentUser();
         if (!isAdmin(currentUser))
             throw new SecurityException("Access denied");
 
-        Card foundCard = getCardOrThrow(cardId);
+        Card foundCard = getCardOrThrow(cardId, ConflictOperations.CARD_STATUS);
         foundCard.setStatus(cardStatus);
         Card updatedCard = cardRepository.save(foundCard);
-        logger.debug("Card was updated: {}", updatedCard.getId().toString());
-        return toDto(updatedCard);
+        CardDto cardDto = toDto(updatedCard);
+        eventPublisher.publishEvent(new CardChangedEvent(updatedCard.getId(), updatedCard.getOwner().getId()));
+        eventPublisher.publishEvent(new CardUpdatedEvent(cardDto, updatedCard.getOwner().getId()));
+        logger.debug("Card was updated: {}", updatedCard.getId());
+        return cardDto;
     }
 
+    @RetryOnConflict(ConflictOperations.TRANSFER)
     @Transactional
     public void transfer(UUID fromCardId, UUID toCardId, BigDecimal amount) {
         if (amount == null || amount.compareTo(BigDecimal.ZERO) <= 0)
@@ -104,42 +198,100 @@ public class CardService {
 
         User currentUser = getCurrentUser();
 
-        Card fromCard = getCardOrThrow(fromCardId);
-        Card toCard = getCardOrThrow(toCardId);
-
-        if (!fromCard.getOwner().getId().equals(currentUser.getId())
-                || !toCard.getOwner().getId().equals(currentUser.getId())) {
-            throw new SecurityException("You can transfer only between your own cards");
-        }
-
-        if (fromCard.getStatus() != CardStatus.ACTIVE || toCard.getStatus() != CardStatus.ACTIVE) {
-            throw new IllegalStateException("Both cards must be active");
+        TransferStageEvent stage = TransferStageEvent.start("load", fromCardId, toCardId);
+        BigDecimal scaledAmount;
+        try {
+            Card fromCard;
+            Card toCard;
+            if (concurrencyConfig.isPessimistic(ConflictOperations.TRANSFER)) {
+                Map<UUID, Card> locked = cardRepository.findAllForUpdateByIdIn(List.of(fromCardId, toCardId)).stream()
+                        .collect(Collectors.toMap(Card::getId, Function.identity()));
+                fromCard = Optional.ofNullable(locked.get(fromCardId)).orElseThrow(() -> cardNotFound(fromCardId));
+                toCard = Optional.ofNullable(locked.get(toCardId)).orElseThrow(() -> cardNotFound(toCardId));
+            } else {
+                fromCard = getCardOrThrow(fromCardId);
+                toCard = getCardOrThrow(toCardId);
+            }
+            stage.end("ok");
+
+            stage = TransferStageEvent.start("validate", fromCardId, toCardId);
+            if (!fromCard.getOwner().getId().equals(currentUser.getId())
+                    || !toCard.getOwner().getId().equals(currentUser.getId())) {
+                throw new SecurityException("You can transfer only between your own cards");
+            }
+
+            if (fromCard.getStatus() != CardStatus.ACTIVE || toCard.getStatus() != CardStatus.ACTIVE) {
+                throw new IllegalStateException("Both cards must be active");
+            }
+
+            YearMonth now = YearMonth.now();
+            if (fromCard.isExpiredAt(now) || toCard.isExpiredAt(now)) {
+                throw new IllegalStateException("Card has expired");
+            }
+
+            if (fromCard.getBalance().compareTo(amount) < 0) {
+                throw new InsufficientFundsException("Insufficient funds on source card");
+            }
+            stage.end("ok");
+
+            stage = TransferStageEvent.start("persist", fromCardId, toCardId);
+            scaledAmount = amount.setScale(2, RoundingMode.HALF_UP);
+            fromCard.setBalance(fromCard.getBalance().subtract(scaledAmount));
+            toCard.setBalance(toCard.getBalance().add(scaledAmount));
+
+            cardRepository.saveAll(List.of(fromCard, toCard));
+            eventPublisher.publishEvent(new CardChangedEvent(fromCardId, currentUser.getId()));
+            eventPublisher.publishEvent(new CardChangedEvent(toCardId, currentUser.getId()));
+            eventPublisher.publishEvent(new CardUpdatedEvent(toDto(fromCard), currentUser.getId()));
+            eventPublisher.publishEvent(new CardUpdatedEvent(toDto(toCard), currentUser.getId()));
+            stage.end("ok");
+        } catch (RuntimeException e) {
+            stage.fail(e);
+            throw e;
         }
-
-        if (fromCard.getBalance().compareTo(amount) < 0) {
-            throw new InsufficientFundsException("Insufficient funds on source card");
-        }
-
-        BigDecimal scaledAmount = amount.setScale(2, RoundingMode.HALF_UP);
-        fromCard.setBalance(fromCard.getBalance().subtract(scaledAmount));
-        toCard.setBalance(toCard.getBalance().add(scaledAmount));
-
-        cardRepository.saveAll(List.of(fromCard, toCard));
+        recordCommitStage(fromCardId, toCardId);
 
         logger.debug("Transferred {} from card {} to card {}", scaledAmount, fromCardId, toCardId);
     }
 
+    @RetryOnConflict(ConflictOperations.CARD_DELETE)
     @Transactional
     public void deleteCard(UUID cardId) {
         User currentUser = getCurrentUser();
         if (!isAdmin(currentUser))
             throw new SecurityException("Access denied");
 
-        Card card = getCardOrThrow(cardId);
+        Card card = getCardOrThrow(cardId, ConflictOperations.CARD_DELETE);
         cardRepository.delete(card);
+        balanceSummaryService.cardRemoved(card.getOwner().getId(), card.getBalance());
+        userRepository.incrementVersion(card.getOwner().getId());
+        eventPublisher.publishEvent(new CardChangedEvent(cardId, card.getOwner().getId()));
+        eventPublisher.publishEvent(new CardRemovedEvent(cardId, card.getOwner().getId()));
         logger.debug("Card was deleted: {}", cardId);
     }
 
+    // The commit stage covers the flush, so version conflicts and constraint failures show up there
+    private static void recordCommitStage(UUID fromCardId, UUID toCardId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive() || !new TransferStageEvent().isEnabled())
+            return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+            private TransferStageEvent commit;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commit = TransferStageEvent.start("commit", fromCardId, toCardId);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (commit != null)
+                    commit.end(status == STATUS_COMMITTED ? "committed" : "rolled_back");
+            }
+
+        });
+    }
+
     private User getUserOrThrow(Long userId) {
         return userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found, id: " + userId));
@@ -147,7 +299,34 @@ public class CardService {
 
     private Card getCardOrThrow(UUID cardId) {
         return cardRepository.findById(cardId)
-                .orElseThrow(() -> new CardNotFoundException("Card not found, id: " + cardId.toString()));
+                .orElseThrow(() -> cardNotFound(cardId));
+    }
+
+    private Card getCardOrThrow(UUID cardId, String operation) {
+        if (!concurrencyConfig.isPessimistic(operation))
+            return getCardOrThrow(cardId);
+        return cardRepository.findForUpdateById(cardId)
+                .orElseThrow(() -> cardNotFound(cardId));
+    }
+
+    // Ownership is part of the query: a foreign card is indistinguishable from a missing one
+    private Card getAccessibleCardOrThrow(UUID cardId, User currentUser) {
+        Optional<Card> card = isAdmin(currentUser)
+                ? cardRepository.findWithOwnerById(cardId)
+                : cardRepository.findByIdAndOwnerId(cardId, currentUser.getId());
+        return card.orElseThrow(() -> cardNotFound(cardId));
+    }
+
+    private Map<UUID, CardSnapshot> loadAccessibleCards(Set<? extends UUID> cardIds, User currentUser) {
+        List<UUID> ids = List.copyOf(cardIds);
+        List<Card> cards = isAdmin(currentUser)
+                ? cardRepository.findAllWithOwnerByIdIn(ids)
+                : cardRepository.findAllByIdInAndOwnerId(ids, currentUser.getId());
+        return cards.stream().collect(Collectors.toMap(Card::getId, this::toSnapshot));
+    }
+
+    private CardNotFoundException cardNotFound(UUID cardId) {
+        return new CardNotFoundException("Card not found, id: " + cardId.toString());
     }
 
     private User getCurrentUser() {
@@ -160,7 +339,13 @@ public class CardService {
         return user.getRole() == Role.ADMIN;
     }
 
-    private CardDto toDto(Card card) {
+    // The DTO carries the owner's full name, so the owner's version is part of the ETag
+    private CardSnapshot toSnapshot(Card card) {
+        return new CardSnapshot(toDto(card), card.getOwner().getId(),
+                ETags.of(card.getVersion(), card.getOwner().getVersion()));
+    }
+
+    static CardDto toDto(Card card) {
         return new CardDto(
                 card.getId(),
                 card.getMaskedNumber(),
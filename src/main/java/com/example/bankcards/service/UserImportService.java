@@ -0,0 +1,143 @@
+package com.example.bankcards.service;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.bankcards.config.UserImportConfig;
+import com.example.bankcards.dto.BulkUserResult;
+import com.example.bankcards.dto.BulkUserResult.BulkUserError;
+import com.example.bankcards.dto.UserRequest;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.event.UserNameChangedEvent;
+import com.example.bankcards.exception.DuplicateUsernameException;
+import com.example.bankcards.repository.UserRepository;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+// Rows are checked on their own and failures reported per row. The rest are hashed in parallel on a
+// pool sized to the cores, outside the transaction, then inserted in JDBC batches in one transaction.
+@Service
+public class UserImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserImportService.class);
+
+    private final UserRepository userRepository;
+    private final PasswordEncoder passwordEncoder;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserImportConfig config;
+    private final ExecutorService hashExecutor;
+
+    public UserImportService(UserRepository userRepository, PasswordEncoder passwordEncoder, Validator validator,
+            TransactionTemplate transactionTemplate, EntityManager entityManager,
+            ApplicationEventPublisher eventPublisher, UserImportConfig config) {
+        this.userRepository = userRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.validator = validator;
+        this.transactionTemplate = transactionTemplate;
+        this.entityManager = entityManager;
+        this.eventPublisher = eventPublisher;
+        this.config = config;
+        this.hashExecutor = Executors.newFixedThreadPool(config.effectiveHashThreads(),
+                new CustomizableThreadFactory("password-hash-"));
+    }
+
+    public BulkUserResult createUsers(List<UserRequest> requests) {
+        if (requests == null || requests.isEmpty() || requests.size() > config.getMaxBatchSize())
+            throw new IllegalArgumentException("Number of users must be between 1 and " + config.getMaxBatchSize());
+
+        Map<Integer, BulkUserError> failed = new TreeMap<>();
+        Map<String, Integer> accepted = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            UserRequest request = requests.get(i);
+            String violation = violation(request);
+            if (violation != null)
+                failed.put(i, error(i, request, violation));
+            else if (accepted.putIfAbsent(request.username(), i) != null)
+                failed.put(i, error(i, request, "Duplicate username in request: " + request.username()));
+        }
+
+        // One query for the whole batch instead of existsByUsername per row
+        if (!accepted.isEmpty()) {
+            for (String taken : userRepository.findExistingUsernames(accepted.keySet())) {
+                int index = accepted.remove(taken);
+                failed.put(index, error(index, requests.get(index), "Username already in use: " + taken));
+            }
+        }
+
+        List<User> saved = accepted.isEmpty() ? List.of() : insert(hash(accepted.values(), requests));
+        logger.debug("Bulk user import: {} created, {} failed", saved.size(), failed.size());
+        return new BulkUserResult(saved.stream().map(UserService::toDto).toList(), List.copyOf(failed.values()));
+    }
+
+    private List<User> hash(Collection<Integer> indexes, List<UserRequest> requests) {
+        List<CompletableFuture<User>> users = indexes.stream()
+                .map(requests::get)
+                .map(request -> CompletableFuture.supplyAsync(() -> User.builder()
+                        .username(request.username())
+                        .fullName(request.fullName())
+                        .password(passwordEncoder.encode(request.password()))
+                        .role(request.role())
+                        .build(), hashExecutor))
+                .toList();
+        return users.stream().map(CompletableFuture::join).toList();
+    }
+
+    private List<User> insert(List<User> users) {
+        try {
+            return transactionTemplate.execute(status -> {
+                // Scoped to this session, unlike hibernate.jdbc.batch_size
+                entityManager.unwrap(Session.class).setJdbcBatchSize(config.getInsertBatchSize());
+                List<User> saved = userRepository.saveAll(users);
+                userRepository.flush();
+                saved.forEach(user -> eventPublisher.publishEvent(new UserNameChangedEvent(null, user.getFullName())));
+                return saved;
+            });
+        } catch (DataIntegrityViolationException e) {
+            throw new DuplicateUsernameException("A username in the batch was taken concurrently; retry the batch");
+        }
+    }
+
+    private String violation(UserRequest request) {
+        if (request == null)
+            return "Empty row";
+        Set<ConstraintViolation<UserRequest>> violations = validator.validate(request);
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .min(Comparator.naturalOrder())
+                .orElse(null);
+    }
+
+    private static BulkUserError error(int index, UserRequest request, String message) {
+        return new BulkUserError(index, request != null ? request.username() : null, message);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashExecutor.shutdown();
+    }
+
+}
@@ -1,32 +1,63 @@
 package com.example.bankcards.service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.example.bankcards.concurrency.ConflictOperations;
+import com.example.bankcards.concurrency.RetryOnConflict;
+import com.example.bankcards.config.ConcurrencyConfig;
+import com.example.bankcards.dto.MultiGetResult;
 import com.example.bankcards.dto.UserDto;
 import com.example.bankcards.dto.UserRequest;
+import com.example.bankcards.dto.UserSearchResult;
+import com.example.bankcards.dto.Versioned;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.event.UserChangedEvent;
+import com.example.bankcards.event.UserNameChangedEvent;
 import com.example.bankcards.exception.DuplicateUsernameException;
 import com.example.bankcards.exception.UserNotFoundException;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.search.UserNameIndex;
+import com.example.bankcards.util.ETags;
+import com.example.bankcards.util.FullNames;
 
 @Service
 public class UserService {
 
     private static final Logger logger = LoggerFactory.getLogger(UserService.class);
+    private static final int MAX_MULTI_GET_SIZE = 100;
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+    private static final int MAX_SUGGESTIONS = 20;
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
-
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    private final BalanceSummaryService balanceSummaryService;
+    private final ConcurrencyConfig concurrencyConfig;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserNameIndex userNameIndex;
+
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+            BalanceSummaryService balanceSummaryService, ConcurrencyConfig concurrencyConfig,
+            ApplicationEventPublisher eventPublisher, UserNameIndex userNameIndex) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.balanceSummaryService = balanceSummaryService;
+        this.concurrencyConfig = concurrencyConfig;
+        this.eventPublisher = eventPublisher;
+        this.userNameIndex = userNameIndex;
     }
 
     @Transactional
@@ -42,15 +73,49 @@ public class UserService {
                 .build();
         logger.debug("User: {} was created, id: {}", user.getUsername(), user.getId());
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(new UserNameChangedEvent(null, savedUser.getFullName()));
         return toDto(savedUser);
 
     }
 
     public UserDto getUserById(Long userId) {
+        return getVersionedUser(userId).body();
+    }
+
+    public Versioned<UserDto> getVersionedUser(Long userId) {
         User foundUser = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("User not found, id: " + userId));
         logger.debug("User found, id: {}", foundUser.getId());
-        return toDto(foundUser);
+        return new Versioned<>(toDto(foundUser), ETags.of(foundUser.getVersion()));
+    }
+
+    // Version-only lookup for conditional GETs; does not load the user or its cards
+    public String getUserETag(Long userId) {
+        return userRepository.findVersionById(userId)
+                .map(ETags::of)
+                .orElseThrow(() -> new UserNotFoundException("User not found, id: " + userId));
+    }
+
+    // One query for the users and their cards, instead of a lookup per id
+    public MultiGetResult<UserDto, Long> getUsers(List<Long> userIds) {
+        if (userIds.isEmpty() || userIds.size() > MAX_MULTI_GET_SIZE)
+            throw new IllegalArgumentException("Number of ids must be between 1 and " + MAX_MULTI_GET_SIZE);
+        List<Long> requested = userIds.stream().distinct().toList();
+
+        Map<Long, User> users = userRepository.findAllWithCardsByIdIn(requested).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+
+        List<UserDto> found = new ArrayList<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long userId : requested) {
+            User user = users.get(userId);
+            if (user != null)
+                found.add(toDto(user));
+            else
+                missing.add(userId);
+        }
+        logger.debug("Users retrieved: {} found, {} missing", found.size(), missing.size());
+        return new MultiGetResult<>(found, missing);
     }
 
     public UserDto getUserByFullname(String fullname) {
@@ -60,17 +125,63 @@ public class UserService {
         return toDto(foundUser);
     }
 
+    // Keyset pagination in normalized full name order; fetch one extra id to learn whether another page exists
+    public UserSearchResult searchUsers(String name, Long after, int size) {
+        String prefix = FullNames.normalize(name);
+        if (prefix == null || prefix.isEmpty())
+            throw new IllegalArgumentException("Search name must not be blank");
+        if (size < 1 || size > MAX_SEARCH_PAGE_SIZE)
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_SEARCH_PAGE_SIZE);
+
+        String upperBound = FullNames.prefixUpperBound(prefix);
+        List<Long> ids;
+        Limit limit = Limit.of(size + 1);
+        if (after == null) {
+            ids = upperBound == null ? userRepository.findIdsByFullNameFrom(prefix, limit)
+                    : userRepository.findIdsByFullNamePrefix(prefix, upperBound, limit);
+        } else {
+            String afterName = userRepository.findFullNameNormalizedById(after)
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown cursor: " + after));
+            ids = upperBound == null ? userRepository.findIdsByFullNameFromAfter(prefix, afterName, after, limit)
+                    : userRepository.findIdsByFullNamePrefixAfter(prefix, upperBound, afterName, after, limit);
+        }
+        List<Long> pageIds = ids.subList(0, Math.min(size, ids.size()));
+
+        Map<Long, User> users = pageIds.isEmpty() ? Map.of()
+                : userRepository.findAllWithCardsByIdIn(pageIds).stream()
+                        .collect(Collectors.toMap(User::getId, Function.identity()));
+        List<UserDto> content = pageIds.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .map(UserService::toDto)
+                .toList();
+        Long nextCursor = ids.size() > size ? pageIds.get(size - 1) : null;
+        logger.debug("User search returned {} users", content.size());
+        return new UserSearchResult(content, nextCursor);
+    }
+
+    // Served from memory; see UserNameIndex for how fresh it is
+    public List<String> suggestFullNames(String prefix, int limit) {
+        if (limit < 1 || limit > MAX_SUGGESTIONS)
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SUGGESTIONS);
+        return userNameIndex.suggest(prefix, limit);
+    }
+
     public Page<UserDto> getAllUsers(Pageable pageable) {
         Page<User> users = userRepository.findAll(pageable);
         logger.debug("All users requested");
-        return users.map(this::toDto);
+        return users.map(UserService::toDto);
     }
 
+    @RetryOnConflict(ConflictOperations.USER_UPDATE)
     @Transactional
     public UserDto updateUser(Long userId, UserRequest userRequest) {
-        User foundUser = userRepository.findById(userId)
+        User foundUser = (concurrencyConfig.isPessimistic(ConflictOperations.USER_UPDATE)
+                ? userRepository.findForUpdateById(userId)
+                : userRepository.findById(userId))
                 .orElseThrow(() -> new UserNotFoundException("User not found, id: " + userId));
 
+        String oldFullName = foundUser.getFullName();
         foundUser.setFullName(userRequest.fullName());
 
         if (userRequest.password() != null) {
@@ -85,18 +196,27 @@ public class UserService {
         }
 
         User updatedUser = userRepository.save(foundUser);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
+        if (!oldFullName.equals(updatedUser.getFullName()))
+            eventPublisher.publishEvent(new UserNameChangedEvent(oldFullName, updatedUser.getFullName()));
         logger.debug("User with id: {} was updated", userId);
         return toDto(updatedUser);
     }
 
+    @RetryOnConflict(ConflictOperations.USER_DELETE)
     @Transactional
     public void deleteUser(Long userId) {
-        userRepository.findById(userId).orElseThrow(() -> new UserNotFoundException("User not found, id: " + userId));
-        userRepository.deleteById(userId);
+        // Set-based: neither the user nor the cards are loaded, so no card number is decrypted
+        String fullName = userRepository.findFullNameForUpdateById(userId)
+                .orElseThrow(() -> new UserNotFoundException("User not found, id: " + userId));
+        balanceSummaryService.userRemoved(userId);
+        userRepository.deleteWithCardsById(userId);
+        eventPublisher.publishEvent(new UserChangedEvent(userId));
+        eventPublisher.publishEvent(new UserNameChangedEvent(fullName, null));
         logger.debug("User with id: {} was deleted", userId);
     }
 
-    private UserDto toDto(User user) {
+    static UserDto toDto(User user) {
         List<String> cards = user.getCards() != null
                 ? List.copyOf(user.getCards().stream().map(card -> card.getMaskedNumber()).toList())
                 : List.of();
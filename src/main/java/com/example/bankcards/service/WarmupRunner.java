@@ -0,0 +1,138 @@
+package com.example.bankcards.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import com.example.bankcards.config.WarmupConfig;
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.LoginRequest;
+import com.example.bankcards.dto.UserDto;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.security.JwtUtil;
+import com.example.bankcards.util.CardNumberConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Runs the request hot paths on dummy data before the instance takes traffic. Boot reports readiness
+// ACCEPTING_TRAFFIC only after all runners return, so /actuator/health/readiness stays down until this ends.
+// Nothing is written; the optional database reads look up ids that do not exist.
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class WarmupRunner implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(WarmupRunner.class);
+
+    private static final int CARDS_PER_USER = 10;
+
+    private final WarmupConfig config;
+    private final JwtUtil jwtUtil;
+    private final CardNumberConverter converter;
+    private final ObjectMapper objectMapper;
+    private final CardRepository cardRepository;
+
+    // Results feed a field so the compiled code keeps every call
+    private long sink;
+
+    @Autowired
+    public WarmupRunner(WarmupConfig config, JwtUtil jwtUtil, ObjectMapper objectMapper,
+            CardRepository cardRepository, AutowireCapableBeanFactory beanFactory) {
+        // Not a bean: Hibernate gets its instance the same way
+        this(config, jwtUtil, beanFactory.createBean(CardNumberConverter.class), objectMapper, cardRepository);
+    }
+
+    WarmupRunner(WarmupConfig config, JwtUtil jwtUtil, CardNumberConverter converter, ObjectMapper objectMapper,
+            CardRepository cardRepository) {
+        this.config = config;
+        this.jwtUtil = jwtUtil;
+        this.converter = converter;
+        this.objectMapper = objectMapper;
+        this.cardRepository = cardRepository;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!config.isEnabled())
+            return;
+        long start = System.nanoTime();
+        int iterations = warmUp();
+        logger.info("Warm-up finished: {} iterations in {} ms", iterations, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // Returns the number of iterations run, fewer than configured if max-duration ran out first
+    int warmUp() {
+        long deadline = System.nanoTime() + config.getMaxDuration().toNanos();
+        int i = 0;
+        while (i < config.getIterations() && System.nanoTime() < deadline)
+            iteration(i++);
+        return i;
+    }
+
+    private void iteration(int i) {
+        String token = jwtUtil.generateToken("warmup_" + i);
+        if (jwtUtil.validateToken(token) && !jwtUtil.isTokenExpired(token))
+            sink += jwtUtil.extractUsername(token).length();
+
+        User owner = User.builder()
+                .id((long) -i)
+                .username("warmup_" + i)
+                .fullName("Warm Up " + i)
+                .password("")
+                .role(Role.USER)
+                .cards(new ArrayList<>())
+                .build();
+        List<CardDto> cards = new ArrayList<>(CARDS_PER_USER);
+        for (int c = 0; c < CARDS_PER_USER; c++) {
+            String number = String.format("4000%06d%06d", i % 1_000_000, c);
+            Card card = new Card();
+            card.setId(UUID.randomUUID());
+            card.setPlainNumber(converter.convertToEntityAttribute(converter.convertToDatabaseColumn(number)));
+            card.setExpiryYear(2030);
+            card.setExpiryMonth(1 + c);
+            card.setOwner(owner);
+            card.setStatus(CardStatus.ACTIVE);
+            card.setBalance(BigDecimal.valueOf(i * 100L + c, 2));
+            owner.getCards().add(card);
+            cards.add(CardService.toDto(card));
+        }
+        UserDto user = UserService.toDto(owner);
+        Page<CardDto> page = new PageImpl<>(cards, PageRequest.of(0, CARDS_PER_USER), 10L * CARDS_PER_USER);
+
+        try {
+            sink += objectMapper.writeValueAsBytes(cards.get(0)).length;
+            sink += objectMapper.writeValueAsBytes(user).length;
+            sink += objectMapper.writeValueAsBytes(page).length;
+            sink += objectMapper.readValue("{\"username\":\"warmup_" + i + "\",\"password\":\"x\"}",
+                    LoginRequest.class).username().length();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // Two queries per iteration; a few hundred are enough for Hibernate and the driver
+        if (config.isDatabaseReads() && i < config.getDatabaseIterations()) {
+            sink += cardRepository.findWithOwnerById(UUID.randomUUID()).isPresent() ? 1 : 0;
+            sink += cardRepository.findByOwnerId(owner.getId(), PageRequest.of(0, CARDS_PER_USER))
+                    .getNumberOfElements();
+        }
+    }
+
+}
@@ -0,0 +1,7 @@
+package com.example.bankcards.stream;
+
+// An SSE event for one user's streams, ready to send. Published by CardStreamRegistry for
+// events committed on this node, so the invalidation bus can relay it to the other nodes.
+public record CardStreamMessage(Long ownerId, String event, String data) {
+
+}
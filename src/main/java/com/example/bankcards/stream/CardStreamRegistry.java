@@ -0,0 +1,207 @@
+package com.example.bankcards.stream;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import com.example.bankcards.config.CardStreamConfig;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.event.CardRemovedEvent;
+import com.example.bankcards.event.CardStatusChangedEvent;
+import com.example.bankcards.event.CardUpdatedEvent;
+import com.example.bankcards.exception.RateLimitExceededException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+// Per-user SSE subscribers for committed card updates. Connections are plain async requests
+// written with non-blocking I/O, so neither idle nor slow clients hold a thread. Events committed
+// here are also published as CardStreamMessage for the invalidation bus to relay, and the other
+// nodes' events come back through deliver().
+@Component
+public class CardStreamRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(CardStreamRegistry.class);
+
+    static final String CARD_EVENT = "card";
+    static final String CARD_STATUS_EVENT = "card-status";
+    static final String CARD_REMOVED_EVENT = "card-removed";
+    private static final byte[] HEARTBEAT = ":heartbeat\n\n".getBytes(StandardCharsets.UTF_8);
+
+    private final CardStreamConfig config;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Map<Long, Set<CardSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter dropped;
+    private final Counter stalled;
+
+    public CardStreamRegistry(CardStreamConfig config, ObjectMapper objectMapper,
+            ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.dropped = meterRegistry.counter("cards.stream.dropped");
+        this.stalled = meterRegistry.counter("cards.stream.stalled");
+        meterRegistry.gauge("cards.stream.connections", connections);
+    }
+
+    public void subscribe(Long userId, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        // Over the limit this throws before the response is touched, so the usual 429 goes out
+        CardSubscriber subscriber = register(userId);
+        try {
+            response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            AsyncContext asyncContext = request.startAsync();
+            asyncContext.setTimeout(config.getTimeout().toMillis());
+            asyncContext.addListener(new AsyncListener() {
+
+                @Override
+                public void onComplete(AsyncEvent event) {
+                    unregister(subscriber);
+                }
+
+                @Override
+                public void onTimeout(AsyncEvent event) {
+                    unregister(subscriber);
+                }
+
+                @Override
+                public void onError(AsyncEvent event) {
+                    unregister(subscriber);
+                }
+
+                @Override
+                public void onStartAsync(AsyncEvent event) {
+                }
+
+            });
+            subscriber.start(asyncContext, response.getOutputStream());
+        } catch (IOException | RuntimeException e) {
+            unregister(subscriber);
+            throw e;
+        }
+    }
+
+    CardSubscriber register(Long userId) {
+        CardSubscriber subscriber = new CardSubscriber(userId, config.getBufferSize());
+        subscribers.compute(userId, (id, current) -> {
+            Set<CardSubscriber> set = current != null ? current : ConcurrentHashMap.newKeySet();
+            if (set.size() >= config.getMaxConnectionsPerUser())
+                throw new RateLimitExceededException("Too many open card streams", 1);
+            set.add(subscriber);
+            return set;
+        });
+        connections.incrementAndGet();
+        logger.debug("Card stream opened for user {}", userId);
+        return subscriber;
+    }
+
+    private void unregister(CardSubscriber subscriber) {
+        subscriber.close();
+        boolean[] removed = new boolean[1];
+        subscribers.computeIfPresent(subscriber.getUserId(), (id, set) -> {
+            removed[0] = set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+        if (removed[0]) {
+            connections.decrementAndGet();
+            logger.debug("Card stream closed for user {}", subscriber.getUserId());
+        }
+    }
+
+    public int getConnectionCount() {
+        return connections.get();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCardUpdated(CardUpdatedEvent event) {
+        publish(event.ownerId(), CARD_EVENT, event.card());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCardStatusChanged(CardStatusChangedEvent event) {
+        publish(event.ownerId(), CARD_STATUS_EVENT, new StatusChange(event.cardId(), event.status()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCardRemoved(CardRemovedEvent event) {
+        publish(event.ownerId(), CARD_REMOVED_EVENT, new Removal(event.cardId()));
+    }
+
+    private void publish(Long ownerId, String event, Object data) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize card stream event", e);
+        }
+        deliver(ownerId, event, json);
+        eventPublisher.publishEvent(new CardStreamMessage(ownerId, event, json));
+    }
+
+    // Fans an event out to this node's subscribers of the owner
+    public void deliver(Long ownerId, String event, String data) {
+        Set<CardSubscriber> userSubscribers = subscribers.get(ownerId);
+        if (userSubscribers == null)
+            return;
+        byte[] frame = ("event:" + event + "\ndata:" + data + "\n\n").getBytes(StandardCharsets.UTF_8);
+        for (CardSubscriber subscriber : userSubscribers) {
+            if (!subscriber.offer(frame))
+                dropped.increment();
+        }
+    }
+
+    // Keeps idle connections from being cut by proxies and detects dead clients
+    @Scheduled(fixedDelayString = "${cards.stream.heartbeat-interval-ms:20000}")
+    public void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.offerIfIdle(HEARTBEAT)));
+    }
+
+    // A client that has not taken a byte for write-timeout is gone or too slow to keep
+    @Scheduled(fixedDelayString = "${cards.stream.stall-check-interval-ms:1000}")
+    public void closeStalled() {
+        long deadline = System.nanoTime() - config.getWriteTimeout().toNanos();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> {
+            if (subscriber.isStalledBefore(deadline)) {
+                stalled.increment();
+                logger.debug("Card stream of user {} stalled, closing", subscriber.getUserId());
+                unregister(subscriber);
+            }
+        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(set -> set.forEach(CardSubscriber::close));
+    }
+
+    // Payload of card-status, for changes made without loading the card
+    record StatusChange(UUID id, CardStatus cardStatus) {
+    }
+
+    record Removal(UUID id) {
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.example.bankcards.stream;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+// One SSE connection, written with non-blocking servlet I/O. Whoever has something to send
+// writes only what the socket accepts right now; when it stops accepting, the container calls
+// onWritePossible once it drains. No thread ever waits on a client, so a slow client costs its
+// own buffer and nothing else, and one stalled for too long is closed by the registry.
+class CardSubscriber implements WriteListener {
+
+    private final Long userId;
+    private final int bufferSize;
+    private final ArrayDeque<byte[]> buffer;
+    // Drain requests; only the caller that moves it off zero writes, the others leave it a pass
+    private final AtomicInteger drainRequests = new AtomicInteger();
+    private AsyncContext asyncContext;
+    private ServletOutputStream out;
+    private volatile boolean started;
+    private volatile boolean closed;
+    private volatile long stalledSince;
+    private boolean unflushed;
+
+    CardSubscriber(Long userId, int bufferSize) {
+        this.userId = userId;
+        this.bufferSize = bufferSize;
+        this.buffer = new ArrayDeque<>(bufferSize);
+    }
+
+    // The container calls onWritePossible once the current dispatch returns
+    void start(AsyncContext asyncContext, ServletOutputStream out) {
+        this.asyncContext = asyncContext;
+        this.out = out;
+        out.setWriteListener(this);
+    }
+
+    Long getUserId() {
+        return userId;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    boolean isStalledBefore(long nanoTime) {
+        long since = stalledSince;
+        return since != 0 && since - nanoTime <= 0;
+    }
+
+    void close() {
+        if (closed)
+            return;
+        closed = true;
+        if (asyncContext != null) {
+            try {
+                asyncContext.complete();
+            } catch (IllegalStateException e) {
+                // already completed by the container
+            }
+        }
+    }
+
+    // Returns false when the buffer was full and the oldest event had to be dropped
+    boolean offer(byte[] event) {
+        if (closed)
+            return true;
+        boolean dropped;
+        synchronized (buffer) {
+            dropped = buffer.size() >= bufferSize;
+            if (dropped)
+                buffer.pollFirst();
+            buffer.addLast(event);
+        }
+        drain();
+        return !dropped;
+    }
+
+    // Heartbeats only matter on a quiet connection and must never push out a real event
+    void offerIfIdle(byte[] event) {
+        if (closed)
+            return;
+        synchronized (buffer) {
+            if (!buffer.isEmpty() || stalledSince != 0)
+                return;
+            buffer.addLast(event);
+        }
+        drain();
+    }
+
+    @Override
+    public void onWritePossible() {
+        started = true;
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        close();
+    }
+
+    private void drain() {
+        if (!started || drainRequests.getAndIncrement() != 0)
+            return;
+        int requests = 1;
+        do {
+            writeWhileReady();
+            requests = drainRequests.addAndGet(-requests);
+        } while (requests != 0);
+    }
+
+    private void writeWhileReady() {
+        if (closed)
+            return;
+        try {
+            while (out.isReady()) {
+                byte[] event;
+                synchronized (buffer) {
+                    event = buffer.pollFirst();
+                }
+                if (event != null) {
+                    out.write(event);
+                    unflushed = true;
+                } else if (unflushed) {
+                    unflushed = false;
+                    out.flush();
+                } else {
+                    stalledSince = 0;
+                    return;
+                }
+            }
+            if (stalledSince == 0)
+                stalledSince = System.nanoTime();
+        } catch (IOException | IllegalStateException e) {
+            close();
+        }
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.example.bankcards.timing;
+
+import java.util.Arrays;
+
+/**
+ * Per-request stage timings for the Server-Timing header. Each request thread
+ * reuses one buffer of counters, so recording a stage allocates nothing; only
+ * the header value itself is a new string. Outside a request (jobs, listeners)
+ * recording is a no-op.
+ */
+public final class ServerTiming {
+
+    public enum Stage {
+        JWT("jwt"), PRINCIPAL("principal"), SERVICE("service"), DB("db"), AES("aes"), JSON("json");
+
+        private final String metric;
+
+        Stage(String metric) {
+            this.metric = metric;
+        }
+
+    }
+
+    private static final Stage[] STAGES = Stage.values();
+    private static final ThreadLocal<Buffer> BUFFER = new ThreadLocal<>();
+
+    private ServerTiming() {
+    }
+
+    public static void start(Stage stage) {
+        Buffer buffer = BUFFER.get();
+        if (buffer == null || !buffer.active)
+            return;
+        int i = stage.ordinal();
+        if (buffer.depth[i]++ == 0)
+            buffer.startedAt[i] = System.nanoTime();
+    }
+
+    // Nested calls of the same stage (a repository calling a repository) are counted once
+    public static void stop(Stage stage) {
+        Buffer buffer = BUFFER.get();
+        if (buffer == null || !buffer.active)
+            return;
+        int i = stage.ordinal();
+        if (buffer.depth[i] > 0 && --buffer.depth[i] == 0)
+            buffer.nanos[i] += System.nanoTime() - buffer.startedAt[i];
+    }
+
+    static void begin() {
+        Buffer buffer = BUFFER.get();
+        if (buffer == null) {
+            buffer = new Buffer();
+            BUFFER.set(buffer);
+        }
+        buffer.reset();
+    }
+
+    static void end() {
+        Buffer buffer = BUFFER.get();
+        if (buffer != null)
+            buffer.active = false;
+    }
+
+    // e.g. "jwt;dur=0.41, principal;dur=1.20, db;dur=3.07, total;dur=9.82"
+    static String header() {
+        Buffer buffer = BUFFER.get();
+        if (buffer == null || !buffer.active)
+            return null;
+        long now = System.nanoTime();
+        StringBuilder value = buffer.header;
+        value.setLength(0);
+        for (Stage stage : STAGES) {
+            int i = stage.ordinal();
+            // A stage still running is included up to now: serialization commits the response mid-stage
+            long nanos = buffer.nanos[i] + (buffer.depth[i] > 0 ? now - buffer.startedAt[i] : 0);
+            if (nanos > 0)
+                appendMetric(value, stage.metric, nanos);
+        }
+        appendMetric(value, "total", now - buffer.requestStartedAt);
+        return value.toString();
+    }
+
+    private static void appendMetric(StringBuilder value, String metric, long nanos) {
+        if (value.length() > 0)
+            value.append(", ");
+        long micros = nanos / 1000;
+        long hundredths = micros % 1000 / 10;
+        value.append(metric).append(";dur=").append(micros / 1000).append('.');
+        if (hundredths < 10)
+            value.append('0');
+        value.append(hundredths);
+    }
+
+    private static final class Buffer {
+
+        private final long[] nanos = new long[STAGES.length];
+        private final int[] depth = new int[STAGES.length];
+        private final long[] startedAt = new long[STAGES.length];
+        private final StringBuilder header = new StringBuilder(128);
+        private long requestStartedAt;
+        private boolean active;
+
+        void reset() {
+            Arrays.fill(nanos, 0);
+            Arrays.fill(depth, 0);
+            requestStartedAt = System.nanoTime();
+            active = true;
+        }
+
+    }
+
+}
@@ -0,0 +1,36 @@
+package com.example.bankcards.timing;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.example.bankcards.timing.ServerTiming.Stage;
+
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ServerTimingAspect {
+
+    @Around("execution(public * com.example.bankcards.service.*Service.*(..))")
+    public Object timeService(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(Stage.SERVICE, joinPoint);
+    }
+
+    @Around("execution(public * org.springframework.data.repository.Repository+.*(..))")
+    public Object timeRepository(ProceedingJoinPoint joinPoint) throws Throwable {
+        return time(Stage.DB, joinPoint);
+    }
+
+    private static Object time(Stage stage, ProceedingJoinPoint joinPoint) throws Throwable {
+        ServerTiming.start(stage);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            ServerTiming.stop(stage);
+        }
+    }
+
+}
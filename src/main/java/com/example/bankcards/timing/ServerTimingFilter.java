@@ -0,0 +1,66 @@
+package com.example.bankcards.timing;
+
+import java.io.IOException;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import com.example.bankcards.config.ServerTimingConfig;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Server-Timing";
+    // For the access log: %{serverTiming}r
+    public static final String ATTRIBUTE = "serverTiming";
+
+    private final ServerTimingConfig config;
+
+    public ServerTimingFilter(ServerTimingConfig config) {
+        this.config = config;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !config.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ServerTiming.begin();
+        HttpServletResponse timed = config.isExposeHeader() ? new HeaderWrapper(response) : response;
+        try {
+            filterChain.doFilter(request, timed);
+        } finally {
+            if (timed instanceof HeaderWrapper wrapper && !response.isCommitted())
+                wrapper.onResponseCommitted();
+            request.setAttribute(ATTRIBUTE, ServerTiming.header());
+            ServerTiming.end();
+        }
+    }
+
+    // Body writes past the buffer commit the response, so large bodies report the part serialized so far
+    private static final class HeaderWrapper extends OnCommittedResponseWrapper {
+
+        HeaderWrapper(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            setHeader(HEADER, ServerTiming.header());
+        }
+
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.example.bankcards.timing;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+
+import com.example.bankcards.timing.ServerTiming.Stage;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Replaces Boot's JSON converter, which backs off when one is defined, to time response serialization
+@Component
+public class TimedJsonConverter extends MappingJackson2HttpMessageConverter {
+
+    public TimedJsonConverter(ObjectMapper objectMapper) {
+        super(objectMapper);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        ServerTiming.start(Stage.JSON);
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            ServerTiming.stop(Stage.JSON);
+        }
+    }
+
+}
@@ -8,12 +8,22 @@ import javax.crypto.spec.SecretKeySpec;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import com.example.bankcards.config.EncryptionConfig;
+import com.example.bankcards.jfr.CardCryptoEvent;
+import com.example.bankcards.timing.ServerTiming;
+import com.example.bankcards.timing.ServerTiming.Stage;
+
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.persistence.AttributeConverter;
 
 public class CardNumberConverter implements AttributeConverter<String, String> {
 
+    // Hibernate creates the converter, so the timers go through the global registry Spring Boot joins
+    private static final Timer ENCRYPT_TIMER = Metrics.timer("cards.number.crypto", "operation", "encrypt");
+    private static final Timer DECRYPT_TIMER = Metrics.timer("cards.number.crypto", "operation", "decrypt");
+
     private static EncryptionConfig staticConfig;
 
     @Autowired
@@ -32,28 +42,52 @@ public class CardNumberConverter implements AttributeConverter<String, String> {
     public String convertToDatabaseColumn(String attribute) {
         if (attribute == null)
             return null;
+        ServerTiming.start(Stage.AES);
+        try {
+            return ENCRYPT_TIMER.record(() -> encrypt(attribute));
+        } finally {
+            ServerTiming.stop(Stage.AES);
+        }
+    }
+
+    @Override
+    public String convertToEntityAttribute(String dbData) {
+        if (dbData == null)
+            return null;
+        ServerTiming.start(Stage.AES);
+        try {
+            return DECRYPT_TIMER.record(() -> decrypt(dbData));
+        } finally {
+            ServerTiming.stop(Stage.AES);
+        }
+    }
 
+    private String encrypt(String attribute) {
+        CardCryptoEvent event = CardCryptoEvent.start("encrypt");
         try {
             Cipher cipher = Cipher.getInstance(staticConfig.getAlgorithm());
             SecretKeySpec key = new SecretKeySpec(staticConfig.getSecretKey().getBytes(), staticConfig.getAlgorithm());
             cipher.init(Cipher.ENCRYPT_MODE, key);
-            return Base64.getEncoder().encodeToString(cipher.doFinal(attribute.getBytes()));
+            String result = Base64.getEncoder().encodeToString(cipher.doFinal(attribute.getBytes()));
+            event.end("ok");
+            return result;
         } catch (Exception e) {
+            event.fail(e);
             throw new RuntimeException("Error encrypting card number", e);
         }
     }
 
-    @Override
-    public String convertToEntityAttribute(String dbData) {
-        if (dbData == null)
-            return null;
-
+    private String decrypt(String dbData) {
+        CardCryptoEvent event = CardCryptoEvent.start("decrypt");
         try {
             Cipher cipher = Cipher.getInstance(staticConfig.getAlgorithm());
             SecretKeySpec key = new SecretKeySpec(staticConfig.getSecretKey().getBytes(), staticConfig.getAlgorithm());
             cipher.init(Cipher.DECRYPT_MODE, key);
-            return new String(cipher.doFinal(Base64.getDecoder().decode(dbData)));
+            String result = new String(cipher.doFinal(Base64.getDecoder().decode(dbData)));
+            event.end("ok");
+            return result;
         } catch (Exception e) {
+            event.fail(e);
             throw new RuntimeException("Error decrypting card number", e);
         }
     }
@@ -0,0 +1,16 @@
+package com.example.bankcards.util;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+public final class ETags {
+
+    private ETags() {
+    }
+
+    // Strong ETag from entity versions, e.g. "12-3"
+    public static String of(Object... versions) {
+        return Arrays.stream(versions).map(String::valueOf).collect(Collectors.joining("-", "\"", "\""));
+    }
+
+}
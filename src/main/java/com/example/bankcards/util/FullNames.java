@@ -0,0 +1,57 @@
+package com.example.bankcards.util;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+public final class FullNames {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    // Order of the full_name_normalized column (COLLATE "C" on UTF-8), which String.compareTo
+    // does not follow for supplementary characters
+    public static final Comparator<String> CODE_POINT_ORDER = FullNames::compareCodePoints;
+
+    private FullNames() {
+    }
+
+    // Search key for a full name or a typed prefix: lower case, ё as е, single spaces
+    public static String normalize(String fullName) {
+        if (fullName == null)
+            return null;
+        String lower = fullName.toLowerCase(Locale.ROOT).replace('ё', 'е');
+        return WHITESPACE.matcher(lower).replaceAll(" ").strip();
+    }
+
+    // Smallest string greater than every string starting with the prefix, in code point order;
+    // null when there is none, i.e. the prefix is only U+10FFFF characters
+    public static String prefixUpperBound(String prefix) {
+        int end = prefix.length();
+        while (end > 0) {
+            int last = prefix.codePointBefore(end);
+            int start = end - Character.charCount(last);
+            if (last != Character.MAX_CODE_POINT) {
+                // Surrogates are not characters and cannot be stored, so step over them
+                int next = last + 1 == Character.MIN_SURROGATE ? Character.MAX_SURROGATE + 1 : last + 1;
+                return new StringBuilder(start + 2).append(prefix, 0, start).appendCodePoint(next).toString();
+            }
+            end = start;
+        }
+        return null;
+    }
+
+    private static int compareCodePoints(String a, String b) {
+        int i = 0;
+        int j = 0;
+        while (i < a.length() && j < b.length()) {
+            int ca = a.codePointAt(i);
+            int cb = b.codePointAt(j);
+            if (ca != cb)
+                return Integer.compare(ca, cb);
+            i += Character.charCount(ca);
+            j += Character.charCount(cb);
+        }
+        return Integer.compare(a.length() - i, b.length() - j);
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.example.bankcards.reactive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import com.example.bankcards.security.CustomUserDetails;
+import com.example.bankcards.security.JwtUtil;
+
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * WebFlux counterpart of JwtAuthenticationFilter: a valid bearer token for an
+ * existing user authenticates the exchange, anything else leaves it anonymous.
+ * Not a bean, because WebFlux would also add every WebFilter bean to the
+ * global chain.
+ */
+public class JwtAuthenticationWebFilter implements WebFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationWebFilter.class);
+    private final JwtUtil jwtUtil;
+    private final ReactiveUserService userService;
+
+    public JwtAuthenticationWebFilter(JwtUtil jwtUtil, ReactiveUserService userService) {
+        this.jwtUtil = jwtUtil;
+        this.userService = userService;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String token = extractToken(exchange);
+        if (token == null)
+            return chain.filter(exchange);
+
+        // Parsing checks the signature and expiry, as validateToken does
+        String username;
+        try {
+            username = jwtUtil.extractUsername(token);
+        } catch (Exception e) {
+            logger.warn("JWT authentication failed: {}", e.getMessage());
+            return chain.filter(exchange);
+        }
+
+        return userService.findByUsername(username)
+                .map(CustomUserDetails::new)
+                .map(userDetails -> ReactiveSecurityContextHolder.withAuthentication(
+                        new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities())))
+                .defaultIfEmpty(Context.empty())
+                .flatMap(context -> chain.filter(exchange).contextWrite(context));
+    }
+
+    private String extractToken(ServerWebExchange exchange) {
+        String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.example.bankcards.reactive;
+
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.liquibase.LiquibaseAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.boot.autoconfigure.security.reactive.ReactiveUserDetailsServiceAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.annotation.Import;
+
+import com.example.bankcards.security.JwtUtil;
+
+/**
+ * Read-only card and user endpoints on WebFlux and R2DBC, served next to the
+ * servlet application against the same schema. Only this package is scanned;
+ * tokens issued by the servlet application are accepted here as is. Every bean
+ * here is conditional on a reactive context, so the servlet application skips
+ * the package when both are on the classpath.
+ *
+ * Built and started with the {@code reactive} Maven profile:
+ * {@code mvn -Preactive spring-boot:run}.
+ */
+@SpringBootApplication(exclude = {
+        DataSourceAutoConfiguration.class,
+        HibernateJpaAutoConfiguration.class,
+        LiquibaseAutoConfiguration.class,
+        ReactiveUserDetailsServiceAutoConfiguration.class })
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+@Import(JwtUtil.class)
+public class ReactiveBankcardsApplication {
+
+    public static void main(String[] args) {
+        new SpringApplicationBuilder(ReactiveBankcardsApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .properties("spring.config.name=application,reactive")
+                .run(args);
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.example.bankcards.reactive;
+
+import java.util.UUID;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.security.CustomUserDetails;
+
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/cards")
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveCardController {
+
+    private final ReactiveCardService cardService;
+
+    public ReactiveCardController(ReactiveCardService cardService) {
+        this.cardService = cardService;
+    }
+
+    @GetMapping("/user/{userId}")
+    public Mono<ResponseEntity<Page<CardDto>>> getUserCards(@PathVariable Long userId,
+            @PageableDefault(size = 10, sort = "id") Pageable pageable,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        return cardService.getUserCards(userId, principal.getUser(), pageable)
+                .map(cards -> ResponseEntity.ok().body(cards));
+    }
+
+    // WebFlux answers 304 itself when the ETag matches If-None-Match
+    @GetMapping("/{cardId}")
+    public Mono<ResponseEntity<CardDto>> getCardById(@PathVariable UUID cardId,
+            @AuthenticationPrincipal CustomUserDetails principal) {
+        return cardService.getVersionedCard(cardId, principal.getUser())
+                .map(card -> ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).eTag(card.etag())
+                        .body(card.body()));
+    }
+
+}
@@ -0,0 +1,122 @@
+package com.example.bankcards.reactive;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.Versioned;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.util.ETags;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveCardRepository {
+
+    private static final String SELECT_CARD = """
+            SELECT c.id, c.last4, c.expiry_year, c.expiry_month, c.status, c.balance, c.version,
+                   u.full_name, u.version AS owner_version
+            FROM cards c JOIN users u ON u.id = c.owner_id
+            """;
+
+    // Card properties accepted in ?sort=, as with the JPA repository; the column names are spliced into SQL
+    private static final Map<String, String> SORT_COLUMNS = Map.of(
+            "id", "c.id",
+            "last4", "c.last4",
+            "expiryYear", "c.expiry_year",
+            "expiryMonth", "c.expiry_month",
+            "status", "c.status",
+            "balance", "c.balance");
+
+    private final DatabaseClient client;
+
+    public ReactiveCardRepository(DatabaseClient client) {
+        this.client = client;
+    }
+
+    public Mono<Versioned<CardDto>> findById(UUID cardId) {
+        return client.sql(SELECT_CARD + "WHERE c.id = :id")
+                .bind("id", cardId)
+                .map(ReactiveCardRepository::toVersionedDto)
+                .one();
+    }
+
+    public Mono<Versioned<CardDto>> findByIdAndOwnerId(UUID cardId, Long ownerId) {
+        return client.sql(SELECT_CARD + "WHERE c.id = :id AND c.owner_id = :ownerId")
+                .bind("id", cardId)
+                .bind("ownerId", ownerId)
+                .map(ReactiveCardRepository::toVersionedDto)
+                .one();
+    }
+
+    public Flux<CardDto> findByOwnerId(Long ownerId, Pageable pageable) {
+        return client.sql(SELECT_CARD + "WHERE c.owner_id = :ownerId ORDER BY " + orderBy(pageable.getSort())
+                + " LIMIT :limit OFFSET :offset")
+                .bind("ownerId", ownerId)
+                .bind("limit", pageable.getPageSize())
+                .bind("offset", pageable.getOffset())
+                .map(ReactiveCardRepository::toDto)
+                .all();
+    }
+
+    public Mono<Long> countByOwnerId(Long ownerId) {
+        return client.sql("SELECT count(*) FROM cards WHERE owner_id = :ownerId")
+                .bind("ownerId", ownerId)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Flux<String> findMaskedNumbersByOwnerId(Long ownerId) {
+        return client.sql("SELECT last4 FROM cards WHERE owner_id = :ownerId ORDER BY id")
+                .bind("ownerId", ownerId)
+                .map(row -> maskedNumber(row.get("last4", String.class)))
+                .all();
+    }
+
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted())
+            return "c.id";
+        return sort.stream()
+                .map(order -> {
+                    String column = SORT_COLUMNS.get(order.getProperty());
+                    if (column == null)
+                        throw new IllegalArgumentException("Unsupported sort property: " + order.getProperty());
+                    return column + (order.isAscending() ? " ASC" : " DESC");
+                })
+                .collect(Collectors.joining(", "));
+    }
+
+    // Same ETag as the servlet application, so a client can revalidate against either
+    private static Versioned<CardDto> toVersionedDto(Readable row) {
+        return new Versioned<>(toDto(row),
+                ETags.of(row.get("version", Long.class), row.get("owner_version", Long.class)));
+    }
+
+    private static CardDto toDto(Readable row) {
+        return new CardDto(
+                row.get("id", UUID.class),
+                maskedNumber(row.get("last4", String.class)),
+                row.get("full_name", String.class),
+                row.get("expiry_year", Integer.class),
+                row.get("expiry_month", Integer.class),
+                CardStatus.valueOf(row.get("status", String.class)),
+                row.get("balance", BigDecimal.class));
+    }
+
+    private static String maskedNumber(String last4) {
+        return "**** **** **** " + last4;
+    }
+
+}
@@ -0,0 +1,67 @@
+package com.example.bankcards.reactive;
+
+import java.util.UUID;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.Versioned;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.exception.UserNotFoundException;
+
+import reactor.core.publisher.Mono;
+
+// Same access rules and errors as CardService, without the card cache
+@Service
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveCardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveCardService.class);
+
+    private final ReactiveCardRepository cardRepository;
+    private final ReactiveUserRepository userRepository;
+
+    public ReactiveCardService(ReactiveCardRepository cardRepository, ReactiveUserRepository userRepository) {
+        this.cardRepository = cardRepository;
+        this.userRepository = userRepository;
+    }
+
+    // Ownership is part of the query: a foreign card is indistinguishable from a missing one
+    public Mono<Versioned<CardDto>> getVersionedCard(UUID cardId, User currentUser) {
+        Mono<Versioned<CardDto>> card = isAdmin(currentUser)
+                ? cardRepository.findById(cardId)
+                : cardRepository.findByIdAndOwnerId(cardId, currentUser.getId());
+        return card
+                .switchIfEmpty(Mono.error(() -> new CardNotFoundException("Card not found, id: " + cardId)))
+                .doOnNext(found -> logger.debug("Card retrieved: {}", cardId));
+    }
+
+    public Mono<Page<CardDto>> getUserCards(Long userId, User currentUser, Pageable pageable) {
+        if (!currentUser.getId().equals(userId) && !isAdmin(currentUser))
+            return Mono.error(new SecurityException("Access denied"));
+
+        return Mono.zip(cardRepository.findByOwnerId(userId, pageable).collectList(),
+                        cardRepository.countByOwnerId(userId))
+                .map(page -> (Page<CardDto>) new PageImpl<>(page.getT1(), pageable, page.getT2()))
+                .flatMap(cards -> cards.isEmpty()
+                        ? userRepository.existsById(userId)
+                                .flatMap(exists -> exists ? Mono.just(cards)
+                                        : Mono.error(new UserNotFoundException("User not found, id: " + userId)))
+                        : Mono.just(cards))
+                .doOnNext(cards -> logger.debug("Page of card retrieved for user: {}", userId));
+    }
+
+    private boolean isAdmin(User user) {
+        return user.getRole() == Role.ADMIN;
+    }
+
+}
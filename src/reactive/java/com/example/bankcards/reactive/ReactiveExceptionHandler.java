@@ -0,0 +1,26 @@
+package com.example.bankcards.reactive;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.example.bankcards.dto.ErrorResponse;
+import com.example.bankcards.exception.GlobalExceptionHandler;
+
+// Same error bodies as the servlet application. WebFlux reports bad input and unknown
+// routes as ResponseStatusException, which would otherwise fall through to the 500 fallback.
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveExceptionHandler extends GlobalExceptionHandler {
+
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorResponse> handleResponseStatusException(ResponseStatusException ex) {
+        HttpStatus status = HttpStatus.valueOf(ex.getStatusCode().value());
+        return ResponseEntity.status(status).body(new ErrorResponse(ex.getReason(), status.value()));
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.example.bankcards.reactive;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ServerWebExchange;
+
+import com.example.bankcards.dto.UserDto;
+
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/users")
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveUserController {
+
+    private final ReactiveUserService userService;
+
+    public ReactiveUserController(ReactiveUserService userService) {
+        this.userService = userService;
+    }
+
+    @GetMapping("/{userId}")
+    public Mono<ResponseEntity<UserDto>> getUserById(@PathVariable Long userId, ServerWebExchange exchange) {
+        if (exchange.getRequest().getHeaders().getIfNoneMatch().isEmpty())
+            return getUser(userId);
+        return userService.getUserETag(userId)
+                .flatMap(etag -> exchange.checkNotModified(etag) ? Mono.empty() : getUser(userId));
+    }
+
+    private Mono<ResponseEntity<UserDto>> getUser(Long userId) {
+        return userService.getVersionedUser(userId)
+                .map(user -> ResponseEntity.ok().cacheControl(CacheControl.noCache().cachePrivate()).eTag(user.etag())
+                        .body(user.body()));
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.example.bankcards.reactive;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Mono;
+
+@Repository
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveUserRepository {
+
+    // The password hash is never read on this path
+    private static final String SELECT_USER = "SELECT id, username, full_name, role, version FROM users ";
+
+    private final DatabaseClient client;
+
+    public ReactiveUserRepository(DatabaseClient client) {
+        this.client = client;
+    }
+
+    public Mono<User> findById(Long userId) {
+        return client.sql(SELECT_USER + "WHERE id = :id")
+                .bind("id", userId)
+                .map(ReactiveUserRepository::toUser)
+                .one();
+    }
+
+    public Mono<User> findByUsername(String username) {
+        return client.sql(SELECT_USER + "WHERE username = :username")
+                .bind("username", username)
+                .map(ReactiveUserRepository::toUser)
+                .one();
+    }
+
+    public Mono<Long> findVersionById(Long userId) {
+        return client.sql("SELECT version FROM users WHERE id = :id")
+                .bind("id", userId)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<Boolean> existsById(Long userId) {
+        return client.sql("SELECT EXISTS (SELECT 1 FROM users WHERE id = :id)")
+                .bind("id", userId)
+                .map(row -> row.get(0, Boolean.class))
+                .one();
+    }
+
+    private static User toUser(Readable row) {
+        return User.builder()
+                .id(row.get("id", Long.class))
+                .username(row.get("username", String.class))
+                .fullName(row.get("full_name", String.class))
+                .role(Role.valueOf(row.get("role", String.class)))
+                .version(row.get("version", Long.class))
+                .build();
+    }
+
+}
@@ -0,0 +1,56 @@
+package com.example.bankcards.reactive;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication.Type;
+import org.springframework.stereotype.Service;
+
+import com.example.bankcards.dto.UserDto;
+import com.example.bankcards.dto.Versioned;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.UserNotFoundException;
+import com.example.bankcards.util.ETags;
+
+import reactor.core.publisher.Mono;
+
+@Service
+@ConditionalOnWebApplication(type = Type.REACTIVE)
+public class ReactiveUserService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveUserService.class);
+
+    private final ReactiveUserRepository userRepository;
+    private final ReactiveCardRepository cardRepository;
+
+    public ReactiveUserService(ReactiveUserRepository userRepository, ReactiveCardRepository cardRepository) {
+        this.userRepository = userRepository;
+        this.cardRepository = cardRepository;
+    }
+
+    public Mono<User> findByUsername(String username) {
+        return userRepository.findByUsername(username);
+    }
+
+    public Mono<Versioned<UserDto>> getVersionedUser(Long userId) {
+        return userRepository.findById(userId)
+                .switchIfEmpty(Mono.error(() -> userNotFound(userId)))
+                .zipWith(cardRepository.findMaskedNumbersByOwnerId(userId).collectList(),
+                        (user, cards) -> new Versioned<>(
+                                new UserDto(user.getId(), user.getUsername(), user.getFullName(), user.getRole(), cards),
+                                ETags.of(user.getVersion())))
+                .doOnNext(user -> logger.debug("User found, id: {}", userId));
+    }
+
+    // Version-only lookup for conditional GETs; does not load the user or its cards
+    public Mono<String> getUserETag(Long userId) {
+        return userRepository.findVersionById(userId)
+                .map(ETags::of)
+                .switchIfEmpty(Mono.error(() -> userNotFound(userId)));
+    }
+
+    private UserNotFoundException userNotFound(Long userId) {
+        return new UserNotFoundException("User not found, id: " + userId);
+    }
+
+}
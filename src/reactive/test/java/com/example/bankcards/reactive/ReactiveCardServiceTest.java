@@ -0,0 +1,121 @@
+package com.example.bankcards.reactive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.dto.Versioned;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.CardNotFoundException;
+import com.example.bankcards.exception.UserNotFoundException;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class ReactiveCardServiceTest {
+
+    private ReactiveCardRepository cardRepository;
+    private ReactiveUserRepository userRepository;
+    private ReactiveCardService cardService;
+
+    @BeforeEach
+    void init() {
+        cardRepository = mock(ReactiveCardRepository.class);
+        userRepository = mock(ReactiveUserRepository.class);
+        cardService = new ReactiveCardService(cardRepository, userRepository);
+    }
+
+    private User user(Long id, Role role) {
+        return User.builder().id(id).username("user" + id).fullName("User " + id).role(role).build();
+    }
+
+    private CardDto card(UUID id) {
+        return new CardDto(id, "**** **** **** 1234", "User 1", 2030, 10, CardStatus.ACTIVE, BigDecimal.TEN);
+    }
+
+    @Test
+    void getVersionedCard_owner_queriesWithOwner() {
+        UUID cardId = UUID.randomUUID();
+        Versioned<CardDto> card = new Versioned<>(card(cardId), "\"1-1\"");
+        when(cardRepository.findByIdAndOwnerId(cardId, 1L)).thenReturn(Mono.just(card));
+
+        StepVerifier.create(cardService.getVersionedCard(cardId, user(1L, Role.USER)))
+                .expectNext(card)
+                .verifyComplete();
+        verify(cardRepository, never()).findById(any());
+    }
+
+    @Test
+    void getVersionedCard_admin_queriesAnyCard() {
+        UUID cardId = UUID.randomUUID();
+        Versioned<CardDto> card = new Versioned<>(card(cardId), "\"1-1\"");
+        when(cardRepository.findById(cardId)).thenReturn(Mono.just(card));
+
+        StepVerifier.create(cardService.getVersionedCard(cardId, user(9L, Role.ADMIN)))
+                .expectNext(card)
+                .verifyComplete();
+    }
+
+    @Test
+    void getVersionedCard_foreignOrMissing_notFound() {
+        UUID cardId = UUID.randomUUID();
+        when(cardRepository.findByIdAndOwnerId(cardId, 1L)).thenReturn(Mono.empty());
+
+        StepVerifier.create(cardService.getVersionedCard(cardId, user(1L, Role.USER)))
+                .expectError(CardNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void getUserCards_otherUser_accessDenied() {
+        StepVerifier.create(cardService.getUserCards(2L, user(1L, Role.USER), PageRequest.of(0, 10)))
+                .expectError(SecurityException.class)
+                .verify();
+        verify(cardRepository, never()).findByOwnerId(anyLong(), any());
+    }
+
+    @Test
+    void getUserCards_returnsPageWithTotal() {
+        Pageable pageable = PageRequest.of(0, 1);
+        CardDto card = card(UUID.randomUUID());
+        when(cardRepository.findByOwnerId(1L, pageable)).thenReturn(Flux.just(card));
+        when(cardRepository.countByOwnerId(1L)).thenReturn(Mono.just(3L));
+
+        StepVerifier.create(cardService.getUserCards(1L, user(1L, Role.USER), pageable))
+                .assertNext(page -> {
+                    assertEquals(1, page.getContent().size());
+                    assertEquals(3, page.getTotalElements());
+                })
+                .verifyComplete();
+        verify(userRepository, never()).existsById(anyLong());
+    }
+
+    @Test
+    void getUserCards_missingUser_notFound() {
+        Pageable pageable = PageRequest.of(0, 10);
+        when(cardRepository.findByOwnerId(5L, pageable)).thenReturn(Flux.empty());
+        when(cardRepository.countByOwnerId(5L)).thenReturn(Mono.just(0L));
+        when(userRepository.existsById(5L)).thenReturn(Mono.just(false));
+
+        StepVerifier.create(cardService.getUserCards(5L, user(9L, Role.ADMIN), pageable))
+                .expectError(UserNotFoundException.class)
+                .verify();
+    }
+
+}
@@ -0,0 +1,186 @@
+package com.example.bankcards.reactive;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+
+/**
+ * Closed-loop HTTP load against the servlet and the reactive read path: every
+ * connection sends the next GET as soon as the previous answer arrives, so the
+ * servers hold {@code load.connections} open connections (10k by default).
+ * Reports throughput, latency and the server's resident memory and thread
+ * count, read from /proc, before and at the peak of the run.
+ *
+ * Both applications must be running; tokens from either are accepted by both:
+ * <pre>
+ * mvn -Preactive test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.example.bankcards.reactive.ReadPathLoadComparison \
+ *     -Dexec.args="$TOKEN /api/cards/$CARD_ID servlet=http://localhost:8080@$PID1 reactive=http://localhost:8081@$PID2"
+ * </pre>
+ * Tuning: {@code -Dload.connections}, {@code -Dload.ramp-seconds},
+ * {@code -Dload.duration-seconds}. Needs a file descriptor limit above the
+ * connection count for the driver and both servers.
+ */
+public final class ReadPathLoadComparison {
+
+    private static final int CONNECTIONS = Integer.getInteger("load.connections", 10_000);
+    private static final Duration RAMP = Duration.ofSeconds(Integer.getInteger("load.ramp-seconds", 10));
+    private static final Duration DURATION = Duration.ofSeconds(Integer.getInteger("load.duration-seconds", 30));
+    private static final int MAX_SAMPLES = 5_000_000;
+
+    private ReadPathLoadComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 3) {
+            System.err.println("Usage: ReadPathLoadComparison <token> <path> <name>=<baseUrl>[@<pid>]...");
+            System.exit(2);
+        }
+        String token = args[0];
+        String path = args[1];
+
+        System.out.printf("%d connections, %ds ramp-up, %ds measured%n", CONNECTIONS, RAMP.toSeconds(),
+                DURATION.toSeconds());
+        System.out.printf("%-10s %10s %9s %9s %8s %12s %12s %12s %12s%n", "target", "req/s", "p50 ms", "p99 ms",
+                "errors", "rss MB", "peak rss MB", "MB/10k conn", "threads");
+        for (int i = 2; i < args.length; i++) {
+            Target target = Target.parse(args[i]);
+            Result result = run(target, URI.create(target.baseUrl() + path), token);
+            System.out.printf("%-10s %10.0f %9.2f %9.2f %8d %12.1f %12.1f %12.1f %12s%n", target.name(),
+                    result.throughput(), result.percentile(0.50), result.percentile(0.99), result.errors(),
+                    result.baselineRssMb(), result.peakRssMb(),
+                    (result.peakRssMb() - result.baselineRssMb()) * 10_000 / CONNECTIONS,
+                    result.baselineThreads() + " -> " + result.peakThreads());
+            Thread.sleep(5_000);
+        }
+    }
+
+    private static Result run(Target target, URI uri, String token) throws Exception {
+        ExecutorService clientExecutor = Executors.newFixedThreadPool(2);
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .executor(clientExecutor)
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(60))
+                .GET()
+                .build();
+
+        long[] latencies = new long[MAX_SAMPLES];
+        AtomicInteger samples = new AtomicInteger();
+        AtomicLong errors = new AtomicLong();
+        LongAccumulator peakRss = new LongAccumulator(Math::max, 0);
+        LongAccumulator peakThreads = new LongAccumulator(Math::max, 0);
+
+        long baselineRss = target.status("VmRSS");
+        long baselineThreads = target.status("Threads");
+        scheduler.scheduleAtFixedRate(() -> {
+            peakRss.accumulate(target.status("VmRSS"));
+            peakThreads.accumulate(target.status("Threads"));
+        }, 0, 250, TimeUnit.MILLISECONDS);
+
+        long start = System.nanoTime();
+        long measureFrom = start + RAMP.toNanos();
+        long measureTo = measureFrom + DURATION.toNanos();
+        CountDownLatch finished = new CountDownLatch(CONNECTIONS);
+
+        for (int i = 0; i < CONNECTIONS; i++) {
+            long delay = RAMP.toNanos() * i / CONNECTIONS;
+            scheduler.schedule(() -> new Connection(client, request, measureFrom, measureTo, latencies, samples,
+                    errors, finished).send(), delay, TimeUnit.NANOSECONDS);
+        }
+
+        finished.await(DURATION.plus(RAMP).toSeconds() + 120, TimeUnit.SECONDS);
+        scheduler.shutdownNow();
+        clientExecutor.shutdownNow();
+
+        int count = Math.min(samples.get(), MAX_SAMPLES);
+        long[] measured = Arrays.copyOf(latencies, count);
+        Arrays.sort(measured);
+        return new Result(samples.get() / (double) DURATION.toSeconds(), measured, errors.get(),
+                baselineRss / 1024.0, Math.max(peakRss.get(), baselineRss) / 1024.0, baselineThreads,
+                Math.max(peakThreads.get(), baselineThreads));
+    }
+
+    // One keep-alive connection in the closed loop
+    private record Connection(HttpClient client, HttpRequest request, long measureFrom, long measureTo,
+            long[] latencies, AtomicInteger samples, AtomicLong errors, CountDownLatch finished) {
+
+        void send() {
+            long sentAt = System.nanoTime();
+            if (sentAt >= measureTo) {
+                finished.countDown();
+                return;
+            }
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+                long now = System.nanoTime();
+                if (sentAt >= measureFrom && now < measureTo) {
+                    if (failure != null || response.statusCode() != 200) {
+                        errors.incrementAndGet();
+                    } else {
+                        int index = samples.getAndIncrement();
+                        if (index < latencies.length)
+                            latencies[index] = now - sentAt;
+                    }
+                }
+                send();
+            });
+        }
+
+    }
+
+    private record Target(String name, String baseUrl, String pid) {
+
+        static Target parse(String arg) {
+            String[] nameAndUrl = arg.split("=", 2);
+            String[] urlAndPid = nameAndUrl[1].split("@", 2);
+            return new Target(nameAndUrl[0], urlAndPid[0], urlAndPid.length > 1 ? urlAndPid[1] : null);
+        }
+
+        // A /proc/<pid>/status field (kB for memory), or 0 without a pid
+        long status(String field) {
+            if (pid == null)
+                return 0;
+            try {
+                return Files.readAllLines(Path.of("/proc", pid, "status")).stream()
+                        .filter(line -> line.startsWith(field + ":"))
+                        .map(line -> line.substring(field.length() + 1).trim().split("\\s+")[0])
+                        .mapToLong(Long::parseLong)
+                        .findFirst()
+                        .orElse(0);
+            } catch (IOException e) {
+                return 0;
+            }
+        }
+
+    }
+
+    private record Result(double throughput, long[] latencies, long errors, double baselineRssMb, double peakRssMb,
+            long baselineThreads, long peakThreads) {
+
+        double percentile(double p) {
+            if (latencies.length == 0)
+                return Double.NaN;
+            return latencies[(int) Math.min(latencies.length - 1, Math.ceil(p * latencies.length) - 1)] / 1e6;
+        }
+
+    }
+
+}
@@ -3,15 +3,22 @@ package com.example.bankcards;
 import org.mockito.Mockito;
 import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
 import org.springframework.context.annotation.Primary;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import com.example.bankcards.config.ServerTimingConfig;
+import com.example.bankcards.querycount.QueryCountTestConfig;
 import com.example.bankcards.security.CustomUserDetailsService;
 import com.example.bankcards.security.JwtUtil;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @TestConfiguration
+@Import({ QueryCountTestConfig.class, ServerTimingConfig.class })
 public class TestSecurityConfig {
 
     @Bean
@@ -37,4 +44,10 @@ public class TestSecurityConfig {
         return new BCryptPasswordEncoder();
     }
 
+    // MVC slices do not auto-configure metrics
+    @Bean
+    public MeterRegistry meterRegistry() {
+        return new SimpleMeterRegistry();
+    }
+
 }
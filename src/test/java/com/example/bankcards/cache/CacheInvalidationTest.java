@@ -0,0 +1,151 @@
+package com.example.bankcards.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import com.example.bankcards.config.InvalidationConfig;
+import com.example.bankcards.event.CardChangedEvent;
+import com.example.bankcards.event.UserChangedEvent;
+import com.example.bankcards.stream.CardStreamMessage;
+import com.example.bankcards.stream.CardStreamRegistry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+public class CacheInvalidationTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private InvalidationConfig config;
+    private InvalidationBus bus;
+    private CardCache cardCache;
+    private CardStreamRegistry cardStreamRegistry;
+    private InvalidationListener listener;
+
+    @BeforeEach
+    void init() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        config = new InvalidationConfig();
+        bus = new InvalidationBus(jdbcTemplate, config, new SimpleMeterRegistry());
+        cardCache = mock(CardCache.class);
+        cardStreamRegistry = mock(CardStreamRegistry.class);
+        listener = new InvalidationListener(new DataSourceProperties(), cardCache, cardStreamRegistry, bus, config,
+                new SimpleMeterRegistry());
+    }
+
+    private List<String> sentPayloads(int expectedCalls) {
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate, times(expectedCalls)).query(eq("SELECT pg_notify(?, ?)"),
+                any(ResultSetExtractor.class), eq(config.getChannel()), payload.capture());
+        return payload.getAllValues().stream().map(String.class::cast).toList();
+    }
+
+    @Test
+    void flush_coalescesRepeatedKeys() {
+        UUID cardId = UUID.randomUUID();
+
+        bus.onCardChanged(new CardChangedEvent(cardId, 1L));
+        bus.onCardChanged(new CardChangedEvent(cardId, 1L));
+        bus.onUserChanged(new UserChangedEvent(1L));
+        bus.flush();
+
+        List<String> payloads = sentPayloads(1);
+        String payload = payloads.get(0);
+        assertTrue(payload.startsWith(bus.getNodeId() + "|"));
+        assertEquals(2, payload.substring(payload.indexOf('|') + 1).split(",").length);
+    }
+
+    @Test
+    void flush_splitsBatchesOnPayloadLimit() {
+        config.setMaxPayloadBytes(100);
+
+        for (int i = 0; i < 10; i++)
+            bus.onCardChanged(new CardChangedEvent(UUID.randomUUID(), 1L));
+        bus.flush();
+
+        List<String> payloads = sentPayloads(5);
+        payloads.forEach(payload -> assertTrue(payload.length() <= 100));
+    }
+
+    @Test
+    void flush_nothingPending() {
+        bus.flush();
+
+        sentPayloads(0);
+    }
+
+    @Test
+    void handle_evictsRemoteKeys() {
+        UUID cardId = UUID.randomUUID();
+
+        listener.handle("othernode|c:" + cardId + ",u:42");
+
+        verify(cardCache).evict(cardId);
+        verify(cardCache).evictOwner(42L);
+    }
+
+    @Test
+    void handle_ignoresOwnNotifications() {
+        listener.handle(bus.getNodeId() + "|c:" + UUID.randomUUID());
+
+        verify(cardCache, never()).evict(any());
+    }
+
+    @Test
+    void handle_evictAllOnOverflowMarker() {
+        listener.handle("othernode|*");
+
+        verify(cardCache).evictAll();
+    }
+
+    @Test
+    void streamMessage_relayedInOrderAfterCacheKeys() {
+        UUID cardId = UUID.randomUUID();
+
+        bus.onCardStreamMessage(new CardStreamMessage(42L, "card", "{\"balance\":1}"));
+        bus.onCardChanged(new CardChangedEvent(cardId, 42L));
+        bus.onCardStreamMessage(new CardStreamMessage(42L, "card", "{\"balance\":2,\"holder\":\"Иван\"}"));
+        bus.flush();
+
+        String payload = sentPayloads(1).get(0);
+        String[] keys = payload.substring(payload.indexOf('|') + 1).split(",");
+        assertEquals("c:" + cardId, keys[0]);
+        assertTrue(keys[1].startsWith("s:42:card:"));
+
+        listener.handle(payload.replace(bus.getNodeId(), "othernode"));
+
+        InOrder inOrder = inOrder(cardStreamRegistry);
+        inOrder.verify(cardStreamRegistry).deliver(42L, "card", "{\"balance\":1}");
+        inOrder.verify(cardStreamRegistry).deliver(42L, "card", "{\"balance\":2,\"holder\":\"Иван\"}");
+        verify(cardCache).evict(cardId);
+    }
+
+    @Test
+    void streamMessage_droppedOverPendingLimit() {
+        config.setMaxPending(1);
+
+        bus.onCardStreamMessage(new CardStreamMessage(42L, "card", "{}"));
+        bus.onCardStreamMessage(new CardStreamMessage(42L, "card", "{}"));
+        bus.flush();
+
+        String payload = sentPayloads(1).get(0);
+        assertEquals(1, payload.substring(payload.indexOf('|') + 1).split(",").length);
+    }
+
+}
@@ -0,0 +1,92 @@
+package com.example.bankcards.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.example.bankcards.config.ConcurrencyConfig;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ConflictRetryAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private FlakyService target;
+    private FlakyService service;
+
+    static class FlakyService {
+
+        final AtomicInteger calls = new AtomicInteger();
+        int failures;
+
+        @RetryOnConflict(ConflictOperations.TRANSFER)
+        public String write() {
+            if (calls.incrementAndGet() <= failures)
+                throw new ObjectOptimisticLockingFailureException("Card", "id");
+            return "done";
+        }
+
+    }
+
+    @BeforeEach
+    void init() {
+        ConcurrencyConfig config = new ConcurrencyConfig();
+        config.setInitialBackoff(Duration.ofMillis(1));
+        config.setMaxBackoff(Duration.ofMillis(2));
+        meterRegistry = new SimpleMeterRegistry();
+
+        target = new FlakyService();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ConflictRetryAspect(config, meterRegistry));
+        service = factory.getProxy();
+    }
+
+    @AfterEach
+    void clearTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    private double count(String name) {
+        var counter = meterRegistry.find(name).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    @Test
+    void retriesUntilSuccess() {
+        target.failures = 2;
+
+        assertEquals("done", service.write());
+        assertEquals(3, target.calls.get());
+        assertEquals(2, count("concurrency.conflicts"));
+        assertEquals(2, count("concurrency.retries"));
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        target.failures = 10;
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> service.write());
+        assertEquals(3, target.calls.get());
+        assertEquals(1, count("concurrency.retries.exhausted"));
+    }
+
+    @Test
+    void noRetryInsideOuterTransaction() {
+        target.failures = 1;
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> service.write());
+        assertEquals(1, target.calls.get());
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.example.bankcards.config;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskSchedulingAutoConfiguration;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import com.example.bankcards.cache.InvalidationBus;
+import com.example.bankcards.event.CardChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SchedulingConfigTest {
+
+    private static final JdbcTemplate JDBC_TEMPLATE = mock(JdbcTemplate.class);
+
+    // Stands in for a nightly job that holds its scheduler thread for the whole run
+    static class BlockingJob {
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        @Scheduled(fixedDelay = 60_000)
+        public void run() throws InterruptedException {
+            started.countDown();
+            release.await();
+        }
+
+    }
+
+    @Configuration
+    static class Jobs {
+
+        @Bean
+        BlockingJob blockingJob() {
+            return new BlockingJob();
+        }
+
+        @Bean
+        InvalidationConfig invalidationConfig() {
+            return new InvalidationConfig();
+        }
+
+        @Bean
+        InvalidationBus invalidationBus(InvalidationConfig config) {
+            return new InvalidationBus(JDBC_TEMPLATE, config, new SimpleMeterRegistry());
+        }
+
+    }
+
+    @Test
+    void flushRunsWhileAnotherScheduledTaskIsBlocked() {
+        new ApplicationContextRunner()
+                .withInitializer(context -> context.getEnvironment().getPropertySources()
+                        .addFirst(applicationYml()))
+                .withConfiguration(AutoConfigurations.of(TaskSchedulingAutoConfiguration.class))
+                .withUserConfiguration(SchedulingConfig.class, Jobs.class)
+                .run(context -> {
+                    BlockingJob job = context.getBean(BlockingJob.class);
+                    try {
+                        assertTrue(job.started.await(5, TimeUnit.SECONDS));
+
+                        context.getBean(InvalidationBus.class).onCardChanged(
+                                new CardChangedEvent(UUID.randomUUID(), 1L));
+
+                        verify(JDBC_TEMPLATE, timeout(2000)).query(anyString(), any(ResultSetExtractor.class),
+                                any(), any());
+                    } finally {
+                        job.release.countDown();
+                    }
+                });
+    }
+
+    private static PropertySource<?> applicationYml() {
+        try {
+            return new YamlPropertySourceLoader().load("application.yml", new ClassPathResource("application.yml"))
+                    .get(0);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.example.bankcards.config;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+class StartupConfigTest {
+
+    @Test
+    void marksBeansFromListedPackagesLazy() {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.register(SwaggerConfig.class, EncryptionConfig.class);
+            context.addBeanFactoryPostProcessor(StartupConfig.lazyPackagesPostProcessor(
+                    List.of("com.example.bankcards.config.SwaggerConfig")));
+            context.refresh();
+
+            assertTrue(context.getBeanFactory().getBeanDefinition("api").isLazyInit());
+            assertFalse(context.getBeanFactory().containsSingleton("api"));
+            assertFalse(context.getBeanFactory().getBeanDefinition("encryptionConfig").isLazyInit());
+            assertTrue(context.getBeanFactory().containsSingleton("encryptionConfig"));
+        }
+    }
+
+}
@@ -1,7 +1,9 @@
 package com.example.bankcards.controller;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -9,6 +11,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -26,19 +29,36 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.example.bankcards.TestSecurityConfig;
 import com.example.bankcards.dto.CardDto;
 import com.example.bankcards.dto.CardRequest;
+import com.example.bankcards.dto.CardSearchFilter;
+import com.example.bankcards.dto.CardSearchResult;
+import com.example.bankcards.dto.MultiGetResult;
+import com.example.bankcards.dto.Versioned;
+import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.CardNotFoundException;
 import com.example.bankcards.exception.InsufficientFundsException;
+import com.example.bankcards.exception.RateLimitExceededException;
 import com.example.bankcards.exception.UserNotFoundException;
+import com.example.bankcards.security.CustomUserDetails;
+import com.example.bankcards.service.CardBulkDeleteService;
 import com.example.bankcards.service.CardService;
+import com.example.bankcards.stream.CardStreamRegistry;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @WebMvcTest(CardRestController.class)
 @AutoConfigureMockMvc(addFilters = false)
 @Import(TestSecurityConfig.class)
@@ -53,11 +73,25 @@ public class CardControllerTest {
     @MockitoBean
     private CardService cardService;
 
+    @MockitoBean
+    private CardBulkDeleteService cardBulkDeleteService;
+
+    @MockitoBean
+    private CardStreamRegistry cardStreamRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     private CardDto sampleCard() {
         return new CardDto(UUID.randomUUID(), "**** **** **** 1234", "John Doe", 2030, 10, CardStatus.ACTIVE,
                 BigDecimal.valueOf(100).setScale(2));
     }
 
+    private long transfers(String outcome) {
+        Timer timer = meterRegistry.find("cards.transfer").tag("outcome", outcome).timer();
+        return timer != null ? timer.count() : 0;
+    }
+
     private CardRequest sampleRequest() {
         return new CardRequest("1234567887654321", 2030, 10, BigDecimal.valueOf(100).setScale(2));
     }
@@ -109,18 +143,30 @@ public class CardControllerTest {
     @Test
     void getCardById_success() throws Exception {
         var card = sampleCard();
-        when(cardService.getCard(card.id())).thenReturn(card);
+        when(cardService.getVersionedCard(card.id())).thenReturn(new Versioned<>(card, "\"3-1\""));
 
         mockMvc.perform(get("/api/cards/" + card.id()))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3-1\""))
                 .andExpect(jsonPath("$.maskedNumber").value(card.maskedNumber()))
                 .andExpect(jsonPath("$.balance").value(100));
     }
 
+    @Test
+    void getCardById_notModified() throws Exception {
+        var card = sampleCard();
+        when(cardService.getVersionedCard(card.id())).thenReturn(new Versioned<>(card, "\"3-1\""));
+
+        mockMvc.perform(get("/api/cards/" + card.id()).header("If-None-Match", "\"3-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3-1\""))
+                .andExpect(content().string(""));
+    }
+
     @Test
     void getCardById_notFound() throws Exception {
         var id = UUID.randomUUID();
-        when(cardService.getCard(id)).thenThrow(new CardNotFoundException("Card not found"));
+        when(cardService.getVersionedCard(id)).thenThrow(new CardNotFoundException("Card not found"));
 
         mockMvc.perform(get("/api/cards/" + id))
                 .andExpect(status().isNotFound())
@@ -128,6 +174,20 @@ public class CardControllerTest {
                 .andExpect(jsonPath("$.statusCode").value(404));
     }
 
+    // Get cards by ids
+    @Test
+    void getCards_success() throws Exception {
+        var card = sampleCard();
+        var missingId = UUID.randomUUID();
+        when(cardService.getCards(List.of(card.id(), missingId)))
+                .thenReturn(new MultiGetResult<>(List.of(card), List.of(missingId)));
+
+        mockMvc.perform(get("/api/cards").param("ids", card.id() + "," + missingId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found[0].id").value(card.id().toString()))
+                .andExpect(jsonPath("$.missing[0]").value(missingId.toString()));
+    }
+
     // Get user's cards
     @Test
     void getUserCards_success() throws Exception {
@@ -153,6 +213,31 @@ public class CardControllerTest {
                 .andExpect(jsonPath("$.statusCode").value(404));
     }
 
+    // Search cards
+    @Test
+    void searchCards_success() throws Exception {
+        var card = sampleCard();
+        var cursor = UUID.randomUUID();
+        var filter = new CardSearchFilter(CardStatus.ACTIVE, null, "1234", null, null, null, null);
+
+        when(cardService.searchCards(filter, cursor, 1)).thenReturn(new CardSearchResult(List.of(card), card.id()));
+
+        mockMvc.perform(get("/api/cards/search")
+                .param("status", "ACTIVE")
+                .param("last4", "1234")
+                .param("after", cursor.toString())
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].maskedNumber").value(card.maskedNumber()))
+                .andExpect(jsonPath("$.nextCursor").value(card.id().toString()));
+    }
+
+    @Test
+    void searchCards_invalidLast4() throws Exception {
+        mockMvc.perform(get("/api/cards/search").param("last4", "12a4"))
+                .andExpect(status().isBadRequest());
+    }
+
     // Update card status
     @Test
     void updateCardStatus_success() throws Exception {
@@ -191,11 +276,52 @@ public class CardControllerTest {
         verify(cardService).deleteCard(id);
     }
 
+    @Test
+    void deleteCards_byFilter() throws Exception {
+        var filter = new CardSearchFilter(CardStatus.EXPIRED, 7L, null, null, null, null, null);
+        when(cardBulkDeleteService.deleteCards(filter)).thenReturn(1250L);
+
+        mockMvc.perform(delete("/api/cards")
+                .param("status", "EXPIRED")
+                .param("ownerId", "7"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted").value(1250));
+    }
+
+    @Test
+    void deleteCards_withoutFilter() throws Exception {
+        var filter = new CardSearchFilter(null, null, null, null, null, null, null);
+        when(cardBulkDeleteService.deleteCards(filter))
+                .thenThrow(new IllegalArgumentException("At least one filter is required to delete cards"));
+
+        mockMvc.perform(delete("/api/cards"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("At least one filter is required to delete cards"));
+    }
+
+    // Card stream
+    @Test
+    void streamCards_subscribesCurrentUser() throws Exception {
+        User user = User.builder().id(10L).username("john").role(Role.USER).build();
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken(new CustomUserDetails(user), null, "ROLE_USER"));
+
+        try {
+            mockMvc.perform(get("/api/cards/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                    .andExpect(status().isOk());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+
+        verify(cardStreamRegistry).subscribe(eq(10L), any(), any());
+    }
+
     // Transfer
     @Test
     void transfer_success() throws Exception {
         UUID fromId = UUID.randomUUID();
         UUID toId = UUID.randomUUID();
+        long before = transfers("success");
 
         mockMvc.perform(post("/api/cards/transfer")
                 .param("fromCardId", fromId.toString())
@@ -204,6 +330,7 @@ public class CardControllerTest {
                 .andExpect(status().isOk());
 
         verify(cardService).transfer(fromId, toId, BigDecimal.valueOf(50));
+        assertEquals(before + 1, transfers("success"));
     }
 
     @Test
@@ -213,6 +340,7 @@ public class CardControllerTest {
 
         doThrow(new InsufficientFundsException("Not enough funds"))
                 .when(cardService).transfer(fromId, toId, BigDecimal.valueOf(500));
+        long before = transfers("insufficient_funds");
 
         mockMvc.perform(post("/api/cards/transfer")
                 .param("fromCardId", fromId.toString())
@@ -221,6 +349,58 @@ public class CardControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.message").value("Not enough funds"))
                 .andExpect(jsonPath("$.statusCode").value(400));
+
+        assertEquals(before + 1, transfers("insufficient_funds"));
+    }
+
+    @Test
+    void transfer_inactiveCard_countedAsInactive() throws Exception {
+        UUID fromId = UUID.randomUUID();
+        UUID toId = UUID.randomUUID();
+
+        doThrow(new IllegalStateException("Both cards must be active"))
+                .when(cardService).transfer(fromId, toId, BigDecimal.valueOf(50));
+        long before = transfers("inactive");
+
+        mockMvc.perform(post("/api/cards/transfer")
+                .param("fromCardId", fromId.toString())
+                .param("toCardId", toId.toString())
+                .param("amount", "50"));
+
+        assertEquals(before + 1, transfers("inactive"));
+    }
+
+    @Test
+    void transfer_concurrentModification() throws Exception {
+        UUID fromId = UUID.randomUUID();
+        UUID toId = UUID.randomUUID();
+
+        doThrow(new ObjectOptimisticLockingFailureException(Card.class, fromId))
+                .when(cardService).transfer(fromId, toId, BigDecimal.valueOf(50));
+
+        mockMvc.perform(post("/api/cards/transfer")
+                .param("fromCardId", fromId.toString())
+                .param("toCardId", toId.toString())
+                .param("amount", "50"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.statusCode").value(409));
+    }
+
+    @Test
+    void transfer_rateLimited() throws Exception {
+        UUID fromId = UUID.randomUUID();
+        UUID toId = UUID.randomUUID();
+
+        doThrow(new RateLimitExceededException("Too many requests, please retry later", 2))
+                .when(cardService).transfer(fromId, toId, BigDecimal.valueOf(50));
+
+        mockMvc.perform(post("/api/cards/transfer")
+                .param("fromCardId", fromId.toString())
+                .param("toCardId", toId.toString())
+                .param("amount", "50"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.statusCode").value(429));
     }
 
     @Test
@@ -7,6 +7,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 import org.junit.jupiter.api.Test;
@@ -23,11 +24,20 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.example.bankcards.TestSecurityConfig;
+import com.example.bankcards.dto.BalanceSummaryDto;
+import com.example.bankcards.dto.BalanceTotalsDto;
+import com.example.bankcards.dto.BulkUserResult;
+import com.example.bankcards.dto.BulkUserResult.BulkUserError;
+import com.example.bankcards.dto.MultiGetResult;
 import com.example.bankcards.dto.UserDto;
 import com.example.bankcards.dto.UserRequest;
+import com.example.bankcards.dto.UserSearchResult;
+import com.example.bankcards.dto.Versioned;
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.exception.DuplicateUsernameException;
 import com.example.bankcards.exception.UserNotFoundException;
+import com.example.bankcards.service.BalanceSummaryService;
+import com.example.bankcards.service.UserImportService;
 import com.example.bankcards.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
@@ -45,6 +55,12 @@ public class UserControllerTest {
     @MockitoBean
     private UserService userService;
 
+    @MockitoBean
+    private BalanceSummaryService balanceSummaryService;
+
+    @MockitoBean
+    private UserImportService userImportService;
+
     private UserDto sampleUser() {
         return new UserDto(1L, "john_doe", "John Doe", Role.USER, List.of());
     }
@@ -97,20 +113,73 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.statusCode").value(409));
     }
 
+    // Bulk create
+    @Test
+    void createUsers_returnsCreatedAndFailedRows() throws Exception {
+        var requests = List.of(sampleRequest(), sampleRequest());
+        when(userImportService.createUsers(requests)).thenReturn(new BulkUserResult(List.of(sampleUser()),
+                List.of(new BulkUserError(1, "john_doe", "Duplicate username in request: john_doe"))));
+
+        mockMvc.perform(post("/api/users/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created[0].username").value("john_doe"))
+                .andExpect(jsonPath("$.failed[0].index").value(1))
+                .andExpect(jsonPath("$.failed[0].message").value("Duplicate username in request: john_doe"));
+    }
+
+    @Test
+    void createUsers_oversizedBatch() throws Exception {
+        when(userImportService.createUsers(List.of()))
+                .thenThrow(new IllegalArgumentException("Number of users must be between 1 and 200"));
+
+        mockMvc.perform(post("/api/users/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Number of users must be between 1 and 200"));
+    }
+
     // Get user by id
     @Test
     void getUserById_success() throws Exception {
-        when(userService.getUserById(1L)).thenReturn(sampleUser());
+        when(userService.getVersionedUser(1L)).thenReturn(new Versioned<>(sampleUser(), "\"2\""));
 
         mockMvc.perform(get("/api/users/1"))
                 .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"2\""))
                 .andExpect(jsonPath("$.id").value(1))
                 .andExpect(jsonPath("$.username").value("john_doe"));
+
+        Mockito.verify(userService, Mockito.never()).getUserETag(1L);
+    }
+
+    @Test
+    void getUserById_notModified() throws Exception {
+        when(userService.getUserETag(1L)).thenReturn("\"2\"");
+
+        mockMvc.perform(get("/api/users/1").header("If-None-Match", "\"2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"2\""));
+
+        Mockito.verify(userService, Mockito.never()).getVersionedUser(1L);
+    }
+
+    @Test
+    void getUserById_staleETag() throws Exception {
+        when(userService.getUserETag(1L)).thenReturn("\"3\"");
+        when(userService.getVersionedUser(1L)).thenReturn(new Versioned<>(sampleUser(), "\"3\""));
+
+        mockMvc.perform(get("/api/users/1").header("If-None-Match", "\"2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(jsonPath("$.id").value(1));
     }
 
     @Test
     void getUserById_notFound() throws Exception {
-        when(userService.getUserById(999L))
+        when(userService.getVersionedUser(999L))
                 .thenThrow(new UserNotFoundException("User not found"));
 
         mockMvc.perform(get("/api/users/999"))
@@ -119,6 +188,49 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.statusCode").value(404));
     }
 
+    // Get users by ids
+    @Test
+    void getUsers_byIds() throws Exception {
+        when(userService.getUsers(List.of(1L, 2L))).thenReturn(new MultiGetResult<>(List.of(sampleUser()), List.of(2L)));
+
+        mockMvc.perform(get("/api/users").param("ids", "1", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.found[0].username").value("john_doe"))
+                .andExpect(jsonPath("$.missing[0]").value(2));
+
+        Mockito.verify(userService, Mockito.never()).getAllUsers(any());
+    }
+
+    // Search by full name
+    @Test
+    void searchUsers_success() throws Exception {
+        when(userService.searchUsers("john", 5L, 20)).thenReturn(new UserSearchResult(List.of(sampleUser()), 1L));
+
+        mockMvc.perform(get("/api/users/search").param("name", "john").param("after", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].fullName").value("John Doe"))
+                .andExpect(jsonPath("$.nextCursor").value(1));
+    }
+
+    @Test
+    void searchUsers_blankName() throws Exception {
+        when(userService.searchUsers(" ", null, 20))
+                .thenThrow(new IllegalArgumentException("Search name must not be blank"));
+
+        mockMvc.perform(get("/api/users/search").param("name", " "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Search name must not be blank"));
+    }
+
+    @Test
+    void suggestFullNames_success() throws Exception {
+        when(userService.suggestFullNames("jo", 10)).thenReturn(List.of("John Doe", "Joan Smith"));
+
+        mockMvc.perform(get("/api/users/autocomplete").param("prefix", "jo"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[1]").value("Joan Smith"));
+    }
+
     // Get all users
     @Test
     void getAllUsers_success() throws Exception {
@@ -130,6 +242,37 @@ public class UserControllerTest {
                 .andExpect(jsonPath("$.content[0].username").value("john_doe"));
     }
 
+    // Balance summary
+    @Test
+    void getBalanceSummary_success() throws Exception {
+        when(balanceSummaryService.getUserSummary(1L))
+                .thenReturn(new BalanceSummaryDto(1L, 2, new BigDecimal("150.00")));
+
+        mockMvc.perform(get("/api/users/1/balance-summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cardCount").value(2))
+                .andExpect(jsonPath("$.totalBalance").value(150.00));
+    }
+
+    @Test
+    void getBalanceSummary_userNotFound() throws Exception {
+        when(balanceSummaryService.getUserSummary(999L)).thenThrow(new UserNotFoundException("User not found"));
+
+        mockMvc.perform(get("/api/users/999/balance-summary"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("User not found"));
+    }
+
+    @Test
+    void getBalanceTotals_success() throws Exception {
+        when(balanceSummaryService.getTotals()).thenReturn(new BalanceTotalsDto(5, new BigDecimal("700.00")));
+
+        mockMvc.perform(get("/api/users/balance-summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.cardCount").value(5))
+                .andExpect(jsonPath("$.totalBalance").value(700.00));
+    }
+
     // Update user
     @Test
     void updateUser_success() throws Exception {
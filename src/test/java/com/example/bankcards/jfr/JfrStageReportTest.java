@@ -0,0 +1,54 @@
+package com.example.bankcards.jfr;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.UUID;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.example.bankcards.config.EncryptionConfig;
+import com.example.bankcards.util.CardNumberConverter;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+class JfrStageReportTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void summarizesStagesByOutcome() throws Exception {
+        EncryptionConfig config = new EncryptionConfig();
+        config.setAlgorithm("AES");
+        config.setSecretKey("MySuperSecretKey");
+        CardNumberConverter.setStaticConfig(config);
+        CardNumberConverter converter = new CardNumberConverter();
+        UUID from = UUID.randomUUID();
+        UUID to = UUID.randomUUID();
+
+        Path file = tempDir.resolve("stages.jfr");
+        try (Recording recording = new Recording(Configuration.create(Path.of("src/main/jfr/bankcards.jfc")))) {
+            recording.start();
+            converter.convertToEntityAttribute(converter.convertToDatabaseColumn("1234567890123456"));
+            converter.convertToEntityAttribute(converter.convertToDatabaseColumn("6543210987654321"));
+            TransferStageEvent.start("load", from, to).end("ok");
+            TransferStageEvent.start("validate", from, to).fail(new IllegalStateException());
+            recording.stop();
+            recording.dump(file);
+        }
+
+        Map<String, JfrStageReport.Stats> report = JfrStageReport.summarize(file);
+
+        assertEquals(2, report.get("CardCrypto encrypt ok").count());
+        assertEquals(2, report.get("CardCrypto decrypt ok").count());
+        assertEquals(1, report.get("TransferStage load ok").count());
+        assertEquals(1, report.get("TransferStage validate IllegalStateException").count());
+        assertTrue(report.get("CardCrypto decrypt ok").max() >= report.get("CardCrypto decrypt ok").percentile(0.5));
+    }
+
+}
@@ -0,0 +1,77 @@
+package com.example.bankcards.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import com.example.bankcards.config.ConcurrencyConfig;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.exception.UserNotFoundException;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.search.UserNameIndex;
+import com.example.bankcards.service.BalanceSummaryService;
+import com.example.bankcards.service.UserService;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ServiceMetricsAspectTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private UserRepository userRepository;
+    private UserService userService;
+
+    @BeforeEach
+    void init() {
+        meterRegistry = new SimpleMeterRegistry();
+        userRepository = mock(UserRepository.class);
+        UserService target = new UserService(userRepository, mock(PasswordEncoder.class),
+                mock(BalanceSummaryService.class), new ConcurrencyConfig(), mock(ApplicationEventPublisher.class),
+                mock(UserNameIndex.class));
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new ServiceMetricsAspect(meterRegistry));
+        userService = factory.getProxy();
+    }
+
+    private Timer timer(String method, String exception) {
+        return meterRegistry.find(ServiceMetricsAspect.METER)
+                .tags("class", "UserService", "method", method, "exception", exception)
+                .timer();
+    }
+
+    @Test
+    void timesSuccessfulCall() {
+        User user = User.builder().id(1L).username("john").fullName("John Doe").role(Role.USER).version(0L)
+                .cards(List.of()).build();
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+
+        userService.getUserById(1L);
+
+        assertEquals(1, timer("getUserById", "none").count());
+    }
+
+    @Test
+    void tagsFailedCallWithException() {
+        when(userRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> userService.getUserById(2L));
+
+        assertEquals(1, timer("getUserById", "UserNotFoundException").count());
+        assertNull(timer("getUserById", "none"));
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.example.bankcards.misc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.bankcards.util.FullNames;
+
+class FullNamesTest {
+
+    private static final String MAX = new String(Character.toChars(Character.MAX_CODE_POINT));
+
+    @Test
+    void prefixUpperBound_incrementsLastCharacter() {
+        assertEquals("joho", FullNames.prefixUpperBound("john"));
+        assertEquals("ивао", FullNames.prefixUpperBound("иван"));
+    }
+
+    @Test
+    void prefixUpperBound_movesPastBmpIntoSupplementary() {
+        assertEquals("a\uD800\uDC00", FullNames.prefixUpperBound("a\uFFFF"));
+        assertEquals("a\uE000", FullNames.prefixUpperBound("a\uD7FF"));
+    }
+
+    @Test
+    void prefixUpperBound_incrementsSupplementaryCodePoint() {
+        // U+1F600 -> U+1F601
+        assertEquals("a\uD83D\uDE01", FullNames.prefixUpperBound("a\uD83D\uDE00"));
+    }
+
+    @Test
+    void prefixUpperBound_dropsTrailingMaximalCodePoints() {
+        assertEquals("b", FullNames.prefixUpperBound("a" + MAX + MAX));
+    }
+
+    @Test
+    void prefixUpperBound_noBoundForMaximalCodePointsOnly() {
+        assertNull(FullNames.prefixUpperBound(MAX));
+        assertNull(FullNames.prefixUpperBound(MAX + MAX));
+    }
+
+    @Test
+    void codePointOrder_sortsSupplementaryAfterBmp() {
+        // UTF-16 order puts the surrogate pair before U+FFFF; COLLATE "C" does not
+        assertTrue("a\uD83D\uDE00".compareTo("a\uFFFF") < 0);
+        assertTrue(FullNames.CODE_POINT_ORDER.compare("a\uD83D\uDE00", "a\uFFFF") > 0);
+        assertTrue(FullNames.CODE_POINT_ORDER.compare("ab", "abc") < 0);
+        assertEquals(0, FullNames.CODE_POINT_ORDER.compare("abc", "abc"));
+    }
+
+}
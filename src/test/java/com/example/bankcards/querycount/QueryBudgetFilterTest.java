@@ -0,0 +1,98 @@
+package com.example.bankcards.querycount;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.IOException;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import com.example.bankcards.config.QueryBudgetConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class QueryBudgetFilterTest {
+
+    private static final String ENDPOINT = "GET /api/cards/{cardId}";
+
+    private QueryBudgetConfig config;
+    private SimpleMeterRegistry meterRegistry;
+    private QueryCountInspector inspector;
+
+    @BeforeEach
+    void init() {
+        config = new QueryBudgetConfig();
+        config.setExposeHeader(true);
+        config.setEndpoints(Map.of(ENDPOINT, 2));
+        meterRegistry = new SimpleMeterRegistry();
+        inspector = new QueryCountInspector();
+    }
+
+    // A handler that runs the given number of statements and then writes a body
+    private MockHttpServletResponse perform(int statements, String body) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/cards/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        HttpServlet handler = new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/cards/{cardId}");
+                for (int i = 0; i < statements; i++)
+                    inspector.inspect("select 1");
+                resp.getWriter().write(body);
+                resp.flushBuffer();
+                // Not part of the header value any more, but still counted against the budget
+                inspector.inspect("select 2");
+            }
+        };
+        new QueryBudgetFilter(config, meterRegistry).doFilter(request, response, new MockFilterChain(handler));
+        return response;
+    }
+
+    private double overBudget() {
+        Counter counter = meterRegistry.find("http.server.queries.over.budget").tag("endpoint", ENDPOINT).counter();
+        return counter != null ? counter.count() : 0;
+    }
+
+    @Test
+    void setsHeaderWhenResponseCommits() throws Exception {
+        MockHttpServletResponse response = perform(1, "{}");
+
+        assertEquals("1", response.getHeader(QueryBudgetFilter.HEADER));
+        assertEquals(0, overBudget());
+        assertEquals(2, meterRegistry.find("http.server.queries").summary().totalAmount());
+    }
+
+    @Test
+    void flagsRequestOverEndpointBudget() throws Exception {
+        perform(3, "{}");
+
+        assertEquals(1, overBudget());
+    }
+
+    @Test
+    void noHeaderWhenNotExposed() throws Exception {
+        config.setExposeHeader(false);
+
+        MockHttpServletResponse response = perform(1, "{}");
+
+        assertNull(response.getHeader(QueryBudgetFilter.HEADER));
+    }
+
+    @Test
+    void statementsOutsideRequestAreNotCounted() {
+        inspector.inspect("select 1");
+
+        assertEquals(0, QueryCounter.current());
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.example.bankcards.querycount;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+import com.example.bankcards.config.QueryBudgetConfig;
+
+// MVC slices pick up QueryBudgetFilter as a servlet filter, but not its properties. Statement
+// counts are not asserted there: with mocked services every controller runs none.
+@TestConfiguration
+public class QueryCountTestConfig {
+
+    @Bean
+    public QueryBudgetConfig queryBudgetConfig() {
+        return new QueryBudgetConfig();
+    }
+
+}
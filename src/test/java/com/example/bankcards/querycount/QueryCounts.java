@@ -0,0 +1,26 @@
+package com.example.bankcards.querycount;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.function.Supplier;
+
+// Exact number of SQL statements an action runs, as seen by QueryCountInspector
+public final class QueryCounts {
+
+    private QueryCounts() {
+    }
+
+    public static <T> T assertQueryCount(int expected, Supplier<T> action) {
+        QueryCounter.start();
+        T result;
+        int count;
+        try {
+            result = action.get();
+        } finally {
+            count = QueryCounter.stop();
+        }
+        assertEquals(expected, count, "SQL statements");
+        return result;
+    }
+
+}
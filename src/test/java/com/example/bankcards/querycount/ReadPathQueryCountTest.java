@@ -0,0 +1,166 @@
+package com.example.bankcards.querycount;
+
+import static com.example.bankcards.querycount.QueryCounts.assertQueryCount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.example.bankcards.cache.CardCache;
+import com.example.bankcards.config.CardCacheConfig;
+import com.example.bankcards.config.ConcurrencyConfig;
+import com.example.bankcards.config.EncryptionConfig;
+import com.example.bankcards.dto.CardSearchFilter;
+import com.example.bankcards.entity.Card;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.search.UserNameIndex;
+import com.example.bankcards.security.CustomUserDetails;
+import com.example.bankcards.service.BalanceSummaryService;
+import com.example.bankcards.service.CardService;
+import com.example.bankcards.service.UserService;
+
+// Statement counts of the service reads behind the card and user GET endpoints, on H2. The test
+// transaction plays the role of open-in-view: lazy collections load within the same session.
+// The JWT user lookup done by the security filter is not part of these counts.
+@DataJpaTest(properties = {
+        "spring.sql.init.schema-locations=classpath:querycount/schema.sql",
+        "spring.jpa.hibernate.ddl-auto=validate" })
+@Import({ QueryCountInspector.class, EncryptionConfig.class, CardCache.class, CardCacheConfig.class,
+        ConcurrencyConfig.class, BalanceSummaryService.class, CardService.class, UserService.class })
+class ReadPathQueryCountTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private CardService cardService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private CardCache cardCache;
+
+    @MockitoBean
+    private UserNameIndex userNameIndex;
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+
+    private User admin;
+    private User john;
+    private User jane;
+    private UUID johnCard;
+
+    @BeforeEach
+    void init() {
+        admin = user("admin", "Admin", Role.ADMIN);
+        john = user("john", "John Doe", Role.USER);
+        jane = user("jane", "Jane Roe", Role.USER);
+        johnCard = card(john, "4000000000001111").getId();
+        card(john, "4000000000002222");
+        card(jane, "4000000000003333");
+        entityManager.flush();
+        entityManager.clear();
+        cardCache.evictAll();
+
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken(new CustomUserDetails(admin), null, "ROLE_ADMIN"));
+    }
+
+    @AfterEach
+    void clearAuth() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private User user(String username, String fullName, Role role) {
+        return entityManager.persist(User.builder().username(username).password("x").fullName(fullName).role(role)
+                .build());
+    }
+
+    private Card card(User owner, String number) {
+        Card card = new Card();
+        card.setPlainNumber(number);
+        card.setExpiryYear(2030);
+        card.setExpiryMonth(5);
+        card.setOwner(owner);
+        card.setBalance(new BigDecimal("100.00"));
+        return entityManager.persist(card);
+    }
+
+    // GET /api/cards/{cardId}: the card with its owner, then the cache
+    @Test
+    void getCard() {
+        assertQueryCount(1, () -> cardService.getVersionedCard(johnCard));
+        assertQueryCount(0, () -> cardService.getVersionedCard(johnCard));
+    }
+
+    // GET /api/cards?ids=: one query for every card that missed the cache
+    @Test
+    void getCards() {
+        List<UUID> ids = entityManager.getEntityManager()
+                .createQuery("SELECT c.id FROM Card c", UUID.class).getResultList();
+        entityManager.clear();
+
+        assertEquals(3, assertQueryCount(1, () -> cardService.getCards(ids)).found().size());
+    }
+
+    // GET /api/cards/user/{userId}: owners come with the cards; a full page also needs the count
+    @Test
+    void getUserCards() {
+        assertEquals(2, assertQueryCount(1,
+                () -> cardService.getUserCards(john.getId(), PageRequest.of(0, 10))).getNumberOfElements());
+        assertEquals(1, assertQueryCount(2,
+                () -> cardService.getUserCards(john.getId(), PageRequest.of(0, 1))).getNumberOfElements());
+    }
+
+    // GET /api/cards/search
+    @Test
+    void searchCards() {
+        CardSearchFilter filter = new CardSearchFilter(CardStatus.ACTIVE, null, null, null, null, null, null);
+
+        assertEquals(3, assertQueryCount(1, () -> cardService.searchCards(filter, null, 10)).content().size());
+    }
+
+    // GET /api/users/{userId}: the user, then its cards for the DTO
+    @Test
+    void getUserById() {
+        assertQueryCount(2, () -> userService.getVersionedUser(john.getId()));
+    }
+
+    // GET /api/users/{userId} with If-None-Match
+    @Test
+    void getUserETag() {
+        assertQueryCount(1, () -> userService.getUserETag(john.getId()));
+    }
+
+    // GET /api/users?ids=: users and cards in one query
+    @Test
+    void getUsers() {
+        assertEquals(3, assertQueryCount(1,
+                () -> userService.getUsers(List.of(admin.getId(), john.getId(), jane.getId()))).found().size());
+    }
+
+    // GET /api/users/search: matching ids, then those users with their cards
+    @Test
+    void searchUsers() {
+        assertEquals(1, assertQueryCount(2, () -> userService.searchUsers("jo", null, 10)).content().size());
+    }
+
+}
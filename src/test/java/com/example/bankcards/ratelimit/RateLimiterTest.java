@@ -0,0 +1,109 @@
+package com.example.bankcards.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.bankcards.config.RateLimitConfig;
+import com.example.bankcards.exception.RateLimitExceededException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RateLimiterTest {
+
+    private RateLimitConfig config;
+    private SimpleMeterRegistry meterRegistry;
+    private RateLimiter rateLimiter;
+
+    @BeforeEach
+    void init() {
+        RateLimitConfig.Limit login = new RateLimitConfig.Limit();
+        login.setCapacity(3);
+        login.setRefillPeriod(Duration.ofMinutes(1));
+        config = new RateLimitConfig();
+        config.setLimits(Map.of(RateLimits.LOGIN, login));
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimiter = new RateLimiter(config, meterRegistry);
+    }
+
+    // Token bucket
+    @Test
+    void bucket_allowsBurstThenWaitsForRefill() {
+        TokenBucket bucket = new TokenBucket(2, 100, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(100, bucket.tryAcquire(0));
+        assertEquals(40, bucket.tryAcquire(60));
+        assertEquals(0, bucket.tryAcquire(100));
+    }
+
+    @Test
+    void bucket_refillsOnlyUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 100, 0);
+
+        assertEquals(0, bucket.tryAcquire(10_000));
+        assertEquals(0, bucket.tryAcquire(10_000));
+        assertTrue(bucket.tryAcquire(10_000) > 0);
+    }
+
+    @Test
+    void bucket_idleOnlyOnceFullForIdleTimeout() {
+        TokenBucket bucket = new TokenBucket(2, 100, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertFalse(bucket.isIdle(150, 100));
+        assertTrue(bucket.isIdle(350, 100));
+    }
+
+    // Rate limiter
+    @Test
+    void acquire_rejectsAfterCapacityWithRetryAfter() {
+        for (int i = 0; i < 3; i++)
+            rateLimiter.acquire(RateLimits.LOGIN, "ip:10.0.0.1");
+
+        var ex = assertThrows(RateLimitExceededException.class,
+                () -> rateLimiter.acquire(RateLimits.LOGIN, "ip:10.0.0.1"));
+        assertTrue(ex.getRetryAfterSeconds() > 0 && ex.getRetryAfterSeconds() <= 60);
+        assertEquals(1, meterRegistry.get("ratelimit.rejected").counter().count());
+    }
+
+    @Test
+    void acquire_keysAreIndependent() {
+        for (int i = 0; i < 3; i++)
+            rateLimiter.acquire(RateLimits.LOGIN, "ip:10.0.0.1");
+
+        assertDoesNotThrow(() -> rateLimiter.acquire(RateLimits.LOGIN, "ip:10.0.0.2"));
+    }
+
+    @Test
+    void evictIdle_keepsBucketsThatAreNotFull() {
+        config.setIdleTimeout(Duration.ZERO);
+        for (int i = 0; i < 3; i++)
+            rateLimiter.acquire(RateLimits.LOGIN, "ip:10.0.0.1");
+
+        rateLimiter.evictIdle();
+
+        assertThrows(RateLimitExceededException.class, () -> rateLimiter.acquire(RateLimits.LOGIN, "ip:10.0.0.1"));
+    }
+
+    @Test
+    void acquire_unknownLimitOrDisabled_notLimited() {
+        for (int i = 0; i < 10; i++)
+            rateLimiter.acquire(RateLimits.TRANSFER, 1L);
+
+        config.setEnabled(false);
+        for (int i = 0; i < 10; i++)
+            rateLimiter.acquire(RateLimits.LOGIN, "ip:10.0.0.1");
+    }
+
+}
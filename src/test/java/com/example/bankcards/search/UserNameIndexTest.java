@@ -0,0 +1,94 @@
+package com.example.bankcards.search;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.bankcards.event.UserNameChangedEvent;
+
+class UserNameIndexTest {
+
+    private UserNameIndex index;
+
+    @BeforeEach
+    void init() {
+        index = new UserNameIndex(mock(JdbcTemplate.class), 4);
+        index.add("Ivan Petrov");
+        index.add("Ivanova Anna");
+        index.add("Иван Сергеевич Ёлкин");
+        index.add("Petr Ivanov");
+    }
+
+    @Test
+    void suggest_matchesNormalizedPrefixInOrder() {
+        assertEquals(List.of("Ivan Petrov", "Ivanova Anna"), index.suggest("IVAN", 10));
+        assertEquals(List.of("Ivan Petrov"), index.suggest("  ivan   p", 10));
+        assertEquals(List.of("Иван Сергеевич Ёлкин"), index.suggest("иван сергеевич ел", 10));
+    }
+
+    @Test
+    void suggest_respectsLimit() {
+        assertEquals(List.of("Ivan Petrov"), index.suggest("iv", 1));
+    }
+
+    @Test
+    void suggest_blankPrefix() {
+        assertEquals(List.of(), index.suggest("  ", 10));
+    }
+
+    @Test
+    void duplicateNames_stayUntilLastUserIsGone() {
+        index.add("ivan  petrov");
+
+        index.remove("Ivan Petrov");
+        assertEquals(List.of("Ivan Petrov"), index.suggest("ivan p", 10));
+
+        index.remove("Ivan Petrov");
+        assertEquals(List.of(), index.suggest("ivan p", 10));
+    }
+
+    @Test
+    void rename_movesTheName() {
+        index.onUserNameChanged(new UserNameChangedEvent("Petr Ivanov", "Petr Sidorov"));
+
+        assertEquals(List.of("Petr Sidorov"), index.suggest("petr", 10));
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void add_ignoresNewNamesWhenFull() {
+        index.add("Sergey Smirnov");
+        index.add("Ivan Petrov");
+
+        assertEquals(4, index.size());
+        assertEquals(List.of(), index.suggest("sergey", 10));
+    }
+
+    @Test
+    void suggest_prefixEndingInMaxCharacters() {
+        UserNameIndex unbounded = new UserNameIndex(mock(JdbcTemplate.class), 10);
+        unbounded.add("a\uffff");
+        unbounded.add("a\uffffb");
+        unbounded.add("a\uD83D\uDE00");
+        unbounded.add("b");
+
+        assertEquals(List.of("a\uffff", "a\uffffb"), unbounded.suggest("a\uffff", 10));
+        assertEquals(List.of("a\uD83D\uDE00"), unbounded.suggest("a\uD83D\uDE00", 10));
+    }
+
+    @Test
+    void suggest_prefixOfMaximalCodePointsOnly() {
+        String max = new String(Character.toChars(Character.MAX_CODE_POINT));
+        UserNameIndex unbounded = new UserNameIndex(mock(JdbcTemplate.class), 10);
+        unbounded.add("z");
+        unbounded.add(max + "a");
+
+        assertEquals(List.of(max + "a"), unbounded.suggest(max, 10));
+    }
+
+}
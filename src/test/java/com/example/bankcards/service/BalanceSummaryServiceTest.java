@@ -0,0 +1,184 @@
+package com.example.bankcards.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.example.bankcards.dto.BalanceReconciliationDto;
+import com.example.bankcards.dto.BalanceSummaryDto;
+import com.example.bankcards.dto.BalanceTotalsDto;
+import com.example.bankcards.entity.BalanceTotals;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.entity.UserBalanceSummary;
+import com.example.bankcards.exception.UserNotFoundException;
+import com.example.bankcards.repository.BalanceTotalsRepository;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserBalanceSummaryRepository;
+import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.security.CustomUserDetails;
+
+class BalanceSummaryServiceTest {
+
+    private UserBalanceSummaryRepository summaryRepository;
+    private BalanceTotalsRepository totalsRepository;
+    private CardRepository cardRepository;
+    private UserRepository userRepository;
+    private BalanceSummaryService balanceSummaryService;
+
+    private User admin;
+    private User user;
+
+    @BeforeEach
+    void init() {
+        summaryRepository = mock(UserBalanceSummaryRepository.class);
+        totalsRepository = mock(BalanceTotalsRepository.class);
+        cardRepository = mock(CardRepository.class);
+        userRepository = mock(UserRepository.class);
+        balanceSummaryService = new BalanceSummaryService(summaryRepository, totalsRepository, cardRepository,
+                userRepository);
+
+        admin = User.builder().id(1L).username("admin").role(Role.ADMIN).build();
+        user = User.builder().id(10L).username("regular_user").fullName("John Doe").role(Role.USER).build();
+    }
+
+    @AfterEach
+    void clearAuth() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private void authenticateAs(User user) {
+        CustomUserDetails cud = new CustomUserDetails(user);
+        TestingAuthenticationToken auth = new TestingAuthenticationToken(cud, null, "ROLE_" + user.getRole().name());
+        SecurityContextHolder.getContext().setAuthentication(auth);
+    }
+
+    @Test
+    void cardAdded_appliesPositiveDelta() {
+        when(summaryRepository.applyCardDelta(10L, 1, new BigDecimal("50.00"))).thenReturn(1);
+
+        balanceSummaryService.cardAdded(10L, new BigDecimal("50.00"));
+
+        verify(summaryRepository).applyCardDelta(10L, 1, new BigDecimal("50.00"));
+    }
+
+    @Test
+    void cardRemoved_appliesNegativeDelta() {
+        balanceSummaryService.cardRemoved(10L, new BigDecimal("50.00"));
+
+        verify(summaryRepository).applyCardDelta(10L, -1, new BigDecimal("-50.00"));
+    }
+
+    @Test
+    void getUserSummary_ownSummary() {
+        authenticateAs(user);
+        when(summaryRepository.findById(10L))
+                .thenReturn(Optional.of(new UserBalanceSummary(10L, 2, new BigDecimal("150.00"))));
+
+        BalanceSummaryDto result = balanceSummaryService.getUserSummary(10L);
+
+        assertEquals(2, result.cardCount());
+        assertEquals(new BigDecimal("150.00"), result.totalBalance());
+    }
+
+    @Test
+    void getUserSummary_noCards_zero() {
+        authenticateAs(admin);
+        when(summaryRepository.findById(10L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(10L)).thenReturn(true);
+
+        BalanceSummaryDto result = balanceSummaryService.getUserSummary(10L);
+
+        assertEquals(0, result.cardCount());
+        assertEquals(new BigDecimal("0.00"), result.totalBalance());
+    }
+
+    @Test
+    void getUserSummary_userNotFound() {
+        authenticateAs(admin);
+        when(summaryRepository.findById(555L)).thenReturn(Optional.empty());
+        when(userRepository.existsById(555L)).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class, () -> balanceSummaryService.getUserSummary(555L));
+    }
+
+    @Test
+    void getUserSummary_byAnother_forbidden() {
+        authenticateAs(user);
+
+        assertThrows(SecurityException.class, () -> balanceSummaryService.getUserSummary(999L));
+    }
+
+    @Test
+    void reconcile_consistent() {
+        when(totalsRepository.findById(BalanceTotals.SINGLETON_ID))
+                .thenReturn(Optional.of(new BalanceTotals(1, 3, new BigDecimal("300.00"))));
+        when(cardRepository.sumBalances()).thenReturn(new BalanceTotalsDto(3, new BigDecimal("300.0")));
+        when(summaryRepository.findMismatchedUserIds(100)).thenReturn(List.of());
+
+        BalanceReconciliationDto result = balanceSummaryService.reconcile();
+
+        assertTrue(result.consistent());
+    }
+
+    @Test
+    void reconcile_drift() {
+        when(totalsRepository.findById(BalanceTotals.SINGLETON_ID))
+                .thenReturn(Optional.of(new BalanceTotals(1, 3, new BigDecimal("300.00"))));
+        when(cardRepository.sumBalances()).thenReturn(new BalanceTotalsDto(3, new BigDecimal("250.00")));
+        when(summaryRepository.findMismatchedUserIds(100)).thenReturn(List.of(10L));
+
+        BalanceReconciliationDto result = balanceSummaryService.reconcile();
+
+        assertFalse(result.consistent());
+        assertEquals(List.of(10L), result.mismatchedUserIds());
+    }
+
+    @Test
+    void rebuildIfMissing_totalsPresent_noRebuild() {
+        when(totalsRepository.existsById(BalanceTotals.SINGLETON_ID)).thenReturn(true);
+
+        balanceSummaryService.rebuildIfMissing();
+
+        verify(summaryRepository, never()).insertFromCards();
+    }
+
+    @Test
+    void rebuildIfMissing_totalsMissing_rebuilds() {
+        when(totalsRepository.existsById(BalanceTotals.SINGLETON_ID)).thenReturn(false);
+
+        balanceSummaryService.rebuildIfMissing();
+
+        verify(summaryRepository).lockCards();
+        verify(summaryRepository).insertFromCards();
+        verify(totalsRepository).rebuild();
+    }
+
+    @Test
+    void rebuildIfMissing_rebuiltByAnotherNodeWhileWaiting_noRebuild() {
+        when(totalsRepository.existsById(BalanceTotals.SINGLETON_ID)).thenReturn(false, true);
+
+        balanceSummaryService.rebuildIfMissing();
+
+        verify(summaryRepository).lockCards();
+        verify(summaryRepository, never()).deleteAllInBatch();
+        verify(summaryRepository, never()).insertFromCards();
+        verify(totalsRepository, never()).rebuild();
+    }
+
+}
@@ -0,0 +1,167 @@
+package com.example.bankcards.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.bankcards.dto.CardSearchFilter;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.event.CardChangedEvent;
+import com.example.bankcards.event.CardRemovedEvent;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.repository.UserRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+
+class CardBulkDeleteServiceTest {
+
+    private static final CardSearchFilter EXPIRED = new CardSearchFilter(CardStatus.EXPIRED, null, null, null, null,
+            null, null);
+
+    private TypedQuery<Tuple> chunkQuery;
+    private CardRepository cardRepository;
+    private UserRepository userRepository;
+    private BalanceSummaryService balanceSummaryService;
+    private TransactionTemplate transactionTemplate;
+    private List<Object> events;
+    private CardBulkDeleteService cardBulkDeleteService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void init() {
+        // The criteria objects only need to exist; the chunks come from the typed query
+        EntityManager entityManager = mock(EntityManager.class, RETURNS_DEEP_STUBS);
+        chunkQuery = mock(TypedQuery.class);
+        when(entityManager.createQuery(any(CriteriaQuery.class))).thenReturn(chunkQuery);
+        when(chunkQuery.setMaxResults(anyInt())).thenReturn(chunkQuery);
+        when(chunkQuery.setLockMode(any())).thenReturn(chunkQuery);
+
+        cardRepository = mock(CardRepository.class);
+        userRepository = mock(UserRepository.class);
+        balanceSummaryService = mock(BalanceSummaryService.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> invocation
+                .<TransactionCallback<?>>getArgument(0).doInTransaction(mock(TransactionStatus.class)));
+        events = new ArrayList<>();
+        cardBulkDeleteService = new CardBulkDeleteService(entityManager, cardRepository, userRepository,
+                balanceSummaryService, transactionTemplate, events::add, 2);
+    }
+
+    private Tuple row(UUID cardId, long ownerId, String balance) {
+        Tuple row = mock(Tuple.class);
+        when(row.get(0, UUID.class)).thenReturn(cardId);
+        when(row.get(1, Long.class)).thenReturn(ownerId);
+        when(row.get(2, BigDecimal.class)).thenReturn(new BigDecimal(balance));
+        return row;
+    }
+
+    private <T> List<T> events(Class<T> type) {
+        return events.stream().filter(type::isInstance).map(type::cast).toList();
+    }
+
+    @Test
+    void deleteCards_emptyFilter_rejected() {
+        CardSearchFilter filter = new CardSearchFilter(null, null, null, null, null, null, null);
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> cardBulkDeleteService.deleteCards(filter));
+
+        assertEquals("At least one filter is required to delete cards", e.getMessage());
+        verifyNoInteractions(transactionTemplate, cardRepository);
+    }
+
+    @Test
+    void deleteCards_continuesWhileChunksAreFull() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        List<Tuple> fullChunk = List.of(row(first, 10L, "1.00"), row(second, 10L, "2.00"));
+        List<Tuple> lastChunk = List.of(row(third, 11L, "3.00"));
+        when(chunkQuery.getResultList()).thenReturn(fullChunk, lastChunk);
+
+        assertEquals(3, cardBulkDeleteService.deleteCards(EXPIRED));
+
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(chunkQuery, times(2)).setMaxResults(2);
+        verify(chunkQuery, times(2)).setLockMode(LockModeType.PESSIMISTIC_WRITE);
+        verify(cardRepository).deleteAllByIdInBatch(List.of(first, second));
+        verify(cardRepository).deleteAllByIdInBatch(List.of(third));
+    }
+
+    @Test
+    void deleteCards_stopsAfterEmptyChunk() {
+        List<Tuple> fullChunk = List.of(row(UUID.randomUUID(), 10L, "1.00"), row(UUID.randomUUID(), 10L, "1.00"));
+        when(chunkQuery.getResultList()).thenReturn(fullChunk, List.of());
+
+        assertEquals(2, cardBulkDeleteService.deleteCards(EXPIRED));
+
+        verify(transactionTemplate, times(2)).execute(any());
+        verify(cardRepository, times(1)).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void deleteCards_appliesDeltaPerOwner() {
+        List<Tuple> chunk = List.of(row(UUID.randomUUID(), 10L, "1.50"), row(UUID.randomUUID(), 11L, "4.00"),
+                row(UUID.randomUUID(), 10L, "2.25"));
+        when(chunkQuery.getResultList()).thenReturn(chunk);
+
+        assertEquals(3, cardBulkDeleteService.deleteCards(EXPIRED));
+
+        verify(balanceSummaryService).cardsRemoved(10L, 2, new BigDecimal("3.75"));
+        verify(balanceSummaryService).cardsRemoved(11L, 1, new BigDecimal("4.00"));
+        verify(userRepository).incrementVersions(Set.of(10L, 11L));
+    }
+
+    @Test
+    void deleteCards_publishesEventsPerCard() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        List<Tuple> fullChunk = List.of(row(first, 10L, "1.00"), row(second, 11L, "1.00"));
+        List<Tuple> lastChunk = List.of(row(third, 10L, "1.00"));
+        when(chunkQuery.getResultList()).thenReturn(fullChunk, lastChunk);
+
+        cardBulkDeleteService.deleteCards(EXPIRED);
+
+        assertEquals(List.of(new CardChangedEvent(first, 10L), new CardChangedEvent(second, 11L),
+                new CardChangedEvent(third, 10L)), events(CardChangedEvent.class));
+        assertEquals(List.of(new CardRemovedEvent(first, 10L), new CardRemovedEvent(second, 11L),
+                new CardRemovedEvent(third, 10L)), events(CardRemovedEvent.class));
+    }
+
+    @Test
+    void deleteCards_nothingMatches() {
+        when(chunkQuery.getResultList()).thenReturn(List.of());
+
+        assertEquals(0, cardBulkDeleteService.deleteCards(EXPIRED));
+
+        verify(cardRepository, never()).deleteAllByIdInBatch(any());
+        verify(balanceSummaryService, never()).cardsRemoved(any(), anyInt(), any());
+        assertEquals(0, events.size());
+    }
+
+}
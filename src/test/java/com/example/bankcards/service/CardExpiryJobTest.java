@@ -0,0 +1,204 @@
+package com.example.bankcards.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.OngoingStubbing;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.UncategorizedSQLException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.event.CardChangedEvent;
+import com.example.bankcards.event.CardStatusChangedEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class CardExpiryJobTest {
+
+    private static final String LOCK_SQL = "SELECT pg_try_advisory_lock(?)";
+    private static final String UNLOCK_SQL = "SELECT pg_advisory_unlock(?)";
+
+    private Connection connection;
+    private PreparedStatement lock;
+    private PreparedStatement update;
+    private PreparedStatement unlock;
+    private List<Object> events;
+    private SimpleMeterRegistry meterRegistry;
+    private CardExpiryJob job;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void init() throws SQLException {
+        connection = mock(Connection.class);
+        lock = mock(PreparedStatement.class);
+        update = mock(PreparedStatement.class);
+        unlock = mock(PreparedStatement.class);
+        when(connection.prepareStatement(LOCK_SQL)).thenReturn(lock);
+        when(connection.prepareStatement(CardExpiryJob.EXPIRE_CHUNK_SQL)).thenReturn(update);
+        when(connection.prepareStatement(UNLOCK_SQL)).thenReturn(unlock);
+        ResultSet unlocked = lockResult(true);
+        when(unlock.executeQuery()).thenReturn(unlocked);
+
+        // Runs the callback on the mocked connection, translating like JdbcTemplate does
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.execute(any(ConnectionCallback.class))).thenAnswer(invocation -> {
+            try {
+                return invocation.<ConnectionCallback<?>>getArgument(0).doInConnection(connection);
+            } catch (SQLException e) {
+                throw new UncategorizedSQLException("expire", CardExpiryJob.EXPIRE_CHUNK_SQL, e);
+            }
+        });
+
+        events = new ArrayList<>();
+        meterRegistry = new SimpleMeterRegistry();
+        job = new CardExpiryJob(jdbcTemplate, events::add, meterRegistry, 2);
+    }
+
+    @AfterEach
+    void shutdown() {
+        job.shutdown();
+    }
+
+    private ResultSet lockResult(boolean acquired) throws SQLException {
+        ResultSet result = mock(ResultSet.class);
+        when(result.next()).thenReturn(true);
+        when(result.getBoolean(1)).thenReturn(acquired);
+        return result;
+    }
+
+    private void lockAcquired(boolean acquired) throws SQLException {
+        ResultSet result = lockResult(acquired);
+        when(lock.executeQuery()).thenReturn(result);
+    }
+
+    // One result set per chunk, each row an (id, owner_id) pair
+    private ResultSet rows(UUID... ids) throws SQLException {
+        ResultSet rows = mock(ResultSet.class);
+        OngoingStubbing<Boolean> next = when(rows.next());
+        for (int i = 0; i < ids.length; i++)
+            next = next.thenReturn(true);
+        next.thenReturn(false);
+        if (ids.length > 0)
+            when(rows.getObject(1, UUID.class)).thenReturn(ids[0], Arrays.copyOfRange(ids, 1, ids.length));
+        when(rows.getLong(2)).thenReturn(10L);
+        return rows;
+    }
+
+    private <T> List<T> events(Class<T> type) {
+        return events.stream().filter(type::isInstance).map(type::cast).toList();
+    }
+
+    @Test
+    void expireCards_skipsWhenLockHeldElsewhere() throws SQLException {
+        lockAcquired(false);
+
+        assertEquals(0, job.expireCards(YearMonth.of(2030, 5)));
+
+        verify(connection, never()).prepareStatement(CardExpiryJob.EXPIRE_CHUNK_SQL);
+        verify(connection, never()).prepareStatement(UNLOCK_SQL);
+        assertEquals(0, events.size());
+        assertEquals(0, meterRegistry.timer("cards.expiry.run").count());
+    }
+
+    @Test
+    void expireCards_continuesWhileChunksAreFull() throws SQLException {
+        lockAcquired(true);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        ResultSet fullChunk = rows(first, second);
+        ResultSet lastChunk = rows(third);
+        when(update.executeQuery()).thenReturn(fullChunk, lastChunk);
+
+        assertEquals(3, job.expireCards(YearMonth.of(2030, 5)));
+
+        verify(update, times(2)).executeQuery();
+        verify(update).setInt(1, 2030);
+        verify(update).setInt(2, 5);
+        verify(update).setInt(3, 2);
+        verify(unlock).executeQuery();
+        assertEquals(3, meterRegistry.counter("cards.expiry.expired").count());
+    }
+
+    @Test
+    void expireCards_stopsAfterEmptyChunk() throws SQLException {
+        lockAcquired(true);
+        ResultSet fullChunk = rows(UUID.randomUUID(), UUID.randomUUID());
+        ResultSet emptyChunk = rows();
+        when(update.executeQuery()).thenReturn(fullChunk, emptyChunk);
+
+        assertEquals(2, job.expireCards(YearMonth.of(2030, 5)));
+
+        verify(update, times(2)).executeQuery();
+    }
+
+    @Test
+    void expireCards_publishesEventsPerRow() throws SQLException {
+        lockAcquired(true);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        UUID third = UUID.randomUUID();
+        ResultSet fullChunk = rows(first, second);
+        ResultSet lastChunk = rows(third);
+        when(update.executeQuery()).thenReturn(fullChunk, lastChunk);
+
+        job.expireCards(YearMonth.of(2030, 5));
+
+        assertEquals(List.of(new CardChangedEvent(first, 10L), new CardChangedEvent(second, 10L),
+                new CardChangedEvent(third, 10L)), events(CardChangedEvent.class));
+        assertEquals(List.of(new CardStatusChangedEvent(first, 10L, CardStatus.EXPIRED),
+                new CardStatusChangedEvent(second, 10L, CardStatus.EXPIRED),
+                new CardStatusChangedEvent(third, 10L, CardStatus.EXPIRED)), events(CardStatusChangedEvent.class));
+    }
+
+    @Test
+    void expireCards_unlocksWhenUpdateFails() throws SQLException {
+        lockAcquired(true);
+        when(update.executeQuery()).thenThrow(new SQLException("canceling statement due to statement timeout"));
+
+        assertThrows(DataAccessException.class, () -> job.expireCards(YearMonth.of(2030, 5)));
+
+        verify(unlock).setLong(1, CardExpiryJob.ADVISORY_LOCK_KEY);
+        verify(unlock).executeQuery();
+        assertEquals(0, events.size());
+    }
+
+    @Test
+    void run_expiresOnItsOwnThread() throws Exception {
+        ResultSet notAcquired = lockResult(false);
+        CompletableFuture<String> thread = new CompletableFuture<>();
+        when(lock.executeQuery()).thenAnswer(invocation -> {
+            thread.complete(Thread.currentThread().getName());
+            return notAcquired;
+        });
+
+        job.run();
+
+        assertTrue(thread.get(5, TimeUnit.SECONDS).startsWith("card-expiry-"));
+    }
+
+}
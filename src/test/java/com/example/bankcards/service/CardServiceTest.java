@@ -1,37 +1,56 @@
 package com.example.bankcards.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.security.authentication.TestingAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 
+import com.example.bankcards.cache.CardCache;
+import com.example.bankcards.concurrency.ConflictOperations;
+import com.example.bankcards.concurrency.LockMode;
+import com.example.bankcards.config.CardCacheConfig;
+import com.example.bankcards.config.ConcurrencyConfig;
 import com.example.bankcards.dto.CardDto;
 import com.example.bankcards.dto.CardRequest;
+import com.example.bankcards.dto.CardSearchFilter;
+import com.example.bankcards.dto.CardSearchResult;
 import com.example.bankcards.entity.Card;
 import com.example.bankcards.entity.CardStatus;
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
+import com.example.bankcards.event.CardChangedEvent;
+import com.example.bankcards.event.CardRemovedEvent;
+import com.example.bankcards.event.CardUpdatedEvent;
 import com.example.bankcards.exception.CardNotFoundException;
 import com.example.bankcards.exception.InsufficientFundsException;
+import com.example.bankcards.exception.UserNotFoundException;
 import com.example.bankcards.repository.CardRepository;
 import com.example.bankcards.repository.UserRepository;
 import com.example.bankcards.security.CustomUserDetails;
@@ -40,6 +59,10 @@ public class CardServiceTest {
 
     private CardRepository cardRepository;
     private UserRepository userRepository;
+    private CardCache cardCache;
+    private BalanceSummaryService balanceSummaryService;
+    private ConcurrencyConfig concurrencyConfig;
+    private ApplicationEventPublisher eventPublisher;
     private CardService cardService;
 
     private User admin;
@@ -51,7 +74,12 @@ public class CardServiceTest {
     void init() {
         cardRepository = mock(CardRepository.class);
         userRepository = mock(UserRepository.class);
-        cardService = new CardService(userRepository, cardRepository);
+        cardCache = new CardCache(new CardCacheConfig());
+        balanceSummaryService = mock(BalanceSummaryService.class);
+        concurrencyConfig = new ConcurrencyConfig();
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        cardService = new CardService(userRepository, cardRepository, cardCache, balanceSummaryService,
+                concurrencyConfig, eventPublisher);
 
         admin = User.builder()
                 .id(1L)
@@ -130,6 +158,8 @@ public class CardServiceTest {
         assertEquals("John Doe", result.ownerFullName());
         assertEquals(BigDecimal.valueOf(50).setScale(2), result.balance());
         verify(cardRepository, times(1)).save(any(Card.class));
+        verify(balanceSummaryService).cardAdded(10L, BigDecimal.valueOf(50).setScale(2));
+        verify(userRepository).incrementVersion(10L);
 
     }
 
@@ -147,7 +177,7 @@ public class CardServiceTest {
     void getCard_asOwner_success() {
         authenticateAs(user);
 
-        when(cardRepository.findById(card.getId())).thenReturn(Optional.of(card));
+        when(cardRepository.findByIdAndOwnerId(card.getId(), user.getId())).thenReturn(Optional.of(card));
 
         var result = cardService.getCard(card.getId());
 
@@ -157,18 +187,29 @@ public class CardServiceTest {
     }
 
     @Test
-    void getCard_asOtherUser_forbidden() {
+    void getVersionedCard_etagFromCardAndOwnerVersions() {
+        authenticateAs(user);
+        card.setVersion(5L);
+        user.setVersion(2L);
+        when(cardRepository.findByIdAndOwnerId(card.getId(), user.getId())).thenReturn(Optional.of(card));
+
+        assertEquals("\"5-2\"", cardService.getVersionedCard(card.getId()).etag());
+    }
+
+    @Test
+    void getCard_asOtherUser_notFound() {
         authenticateAs(otherUser);
-        when(cardRepository.findById(card.getId())).thenReturn(Optional.of(card));
+        when(cardRepository.findByIdAndOwnerId(card.getId(), otherUser.getId())).thenReturn(Optional.empty());
 
-        assertThrows(SecurityException.class, () -> cardService.getCard(card.getId()));
+        assertThrows(CardNotFoundException.class, () -> cardService.getCard(card.getId()));
+        verify(cardRepository, never()).findWithOwnerById(any());
     }
 
     @Test
     void getCard_asAdmin_success() {
         authenticateAs(admin);
 
-        when(cardRepository.findById(card.getId())).thenReturn(Optional.of(card));
+        when(cardRepository.findWithOwnerById(card.getId())).thenReturn(Optional.of(card));
 
         var result = cardService.getCard(card.getId());
 
@@ -177,15 +218,112 @@ public class CardServiceTest {
         assertEquals(card.getBalance(), result.balance());
     }
 
+    @Test
+    void getCard_servedFromCache() {
+        authenticateAs(user);
+
+        when(cardRepository.findByIdAndOwnerId(card.getId(), user.getId())).thenReturn(Optional.of(card));
+
+        cardService.getCard(card.getId());
+        var result = cardService.getCard(card.getId());
+
+        assertEquals(card.getId(), result.id());
+        verify(cardRepository, times(1)).findByIdAndOwnerId(card.getId(), user.getId());
+        assertEquals(1, cardCache.stats().hitCount());
+    }
+
+    @Test
+    void getCard_cachedForOtherUser_notFound() {
+        authenticateAs(admin);
+        when(cardRepository.findWithOwnerById(card.getId())).thenReturn(Optional.of(card));
+        cardService.getCard(card.getId());
+
+        authenticateAs(otherUser);
+
+        assertThrows(CardNotFoundException.class, () -> cardService.getCard(card.getId()));
+    }
+
+    @Test
+    void getCard_reloadedAfterEviction() {
+        authenticateAs(user);
+
+        when(cardRepository.findByIdAndOwnerId(card.getId(), user.getId())).thenReturn(Optional.of(card));
+
+        cardService.getCard(card.getId());
+        card.setBalance(BigDecimal.valueOf(42));
+        cardCache.onCardChanged(new CardChangedEvent(card.getId(), user.getId()));
+        var result = cardService.getCard(card.getId());
+
+        assertEquals(BigDecimal.valueOf(42), result.balance());
+        verify(cardRepository, times(2)).findByIdAndOwnerId(card.getId(), user.getId());
+    }
+
     @Test
     void getCard_cardNotFound() {
         authenticateAs(admin);
 
-        when(cardRepository.findById(any())).thenReturn(Optional.empty());
+        when(cardRepository.findWithOwnerById(any())).thenReturn(Optional.empty());
 
         assertThrows(CardNotFoundException.class, () -> cardService.getCard(UUID.randomUUID()));
     }
 
+    // Get cards by ids
+    @Test
+    void getCards_asOwner_reportsForeignAndUnknownAsMissing() {
+        authenticateAs(user);
+        UUID foreignId = UUID.randomUUID();
+        UUID unknownId = UUID.randomUUID();
+        when(cardRepository.findAllByIdInAndOwnerId(any(), eq(user.getId()))).thenReturn(List.of(card));
+
+        var result = cardService.getCards(List.of(foreignId, card.getId(), unknownId, card.getId()));
+
+        assertEquals(1, result.found().size());
+        assertEquals(card.getId(), result.found().get(0).id());
+        assertEquals(List.of(foreignId, unknownId), result.missing());
+        verify(cardRepository, times(1)).findAllByIdInAndOwnerId(any(), eq(user.getId()));
+    }
+
+    @Test
+    void getCards_loadsOnlyCacheMisses() {
+        authenticateAs(admin);
+        Card second = new Card();
+        second.setId(UUID.randomUUID());
+        second.setOwner(otherUser);
+        second.setPlainNumber("4111111111111111");
+        second.setBalance(BigDecimal.ONE);
+        when(cardRepository.findWithOwnerById(card.getId())).thenReturn(Optional.of(card));
+        when(cardRepository.findAllWithOwnerByIdIn(List.of(second.getId()))).thenReturn(List.of(second));
+        cardService.getCard(card.getId());
+
+        var result = cardService.getCards(List.of(card.getId(), second.getId()));
+
+        assertEquals(List.of(card.getId(), second.getId()), result.found().stream().map(CardDto::id).toList());
+        assertTrue(result.missing().isEmpty());
+        verify(cardRepository).findAllWithOwnerByIdIn(List.of(second.getId()));
+    }
+
+    @Test
+    void getCards_cachedForOtherUser_missing() {
+        authenticateAs(admin);
+        when(cardRepository.findWithOwnerById(card.getId())).thenReturn(Optional.of(card));
+        cardService.getCard(card.getId());
+
+        authenticateAs(otherUser);
+        var result = cardService.getCards(List.of(card.getId()));
+
+        assertTrue(result.found().isEmpty());
+        assertEquals(List.of(card.getId()), result.missing());
+    }
+
+    @Test
+    void getCards_tooManyIds() {
+        authenticateAs(admin);
+        List<UUID> ids = Stream.generate(UUID::randomUUID).limit(101).toList();
+
+        assertThrows(IllegalArgumentException.class, () -> cardService.getCards(ids));
+        assertThrows(IllegalArgumentException.class, () -> cardService.getCards(List.of()));
+    }
+
     // Get user's cards
     @Test
     void getUsersCards_success() {
@@ -197,13 +335,13 @@ public class CardServiceTest {
                 createCard(user, "1000200030004000", BigDecimal.ZERO, CardStatus.ACTIVE));
         Page<Card> page = new PageImpl<>(cards, pageable, cards.size());
 
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(cardRepository.findByOwner(user, pageable)).thenReturn(page);
+        when(cardRepository.findByOwnerId(user.getId(), pageable)).thenReturn(page);
 
         Page<CardDto> result = cardService.getUserCards(user.getId(), pageable);
 
         assertEquals(2, result.getTotalElements());
         assertEquals("**** **** **** 5000", result.getContent().get(0).maskedNumber());
+        verifyNoInteractions(userRepository);
     }
 
     @Test
@@ -216,8 +354,7 @@ public class CardServiceTest {
                 createCard(user, "1000200030004000", BigDecimal.ZERO, CardStatus.ACTIVE));
         Page<Card> page = new PageImpl<>(cards, pageable, cards.size());
 
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
-        when(cardRepository.findByOwner(user, pageable)).thenReturn(page);
+        when(cardRepository.findByOwnerId(user.getId(), pageable)).thenReturn(page);
 
         Page<CardDto> result = cardService.getUserCards(user.getId(), pageable);
 
@@ -231,9 +368,73 @@ public class CardServiceTest {
         authenticateAs(otherUser);
 
         Pageable pageable = PageRequest.of(0, 10);
-        when(userRepository.findById(user.getId())).thenReturn(Optional.of(user));
 
         assertThrows(SecurityException.class, () -> cardService.getUserCards(user.getId(), pageable));
+        verifyNoInteractions(cardRepository);
+    }
+
+    // Search cards
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchCards_asAdmin_returnsNextCursor() {
+        authenticateAs(admin);
+
+        List<Card> cards = List.of(
+                createCard(user, "8000700060005000", BigDecimal.valueOf(1500), CardStatus.ACTIVE),
+                createCard(user, "1000200030004000", BigDecimal.ZERO, CardStatus.ACTIVE),
+                createCard(otherUser, "1000200030004001", BigDecimal.TEN, CardStatus.ACTIVE));
+        when(cardRepository.findBy(any(Specification.class), any())).thenReturn(cards);
+
+        CardSearchResult result = cardService.searchCards(emptyFilter(), null, 2);
+
+        assertEquals(2, result.content().size());
+        assertEquals(cards.get(1).getId(), result.nextCursor());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void searchCards_lastPage_noCursor() {
+        authenticateAs(admin);
+
+        List<Card> cards = List.of(createCard(user, "8000700060005000", BigDecimal.ONE, CardStatus.ACTIVE));
+        when(cardRepository.findBy(any(Specification.class), any())).thenReturn(cards);
+
+        CardSearchResult result = cardService.searchCards(emptyFilter(), UUID.randomUUID(), 2);
+
+        assertEquals(1, result.content().size());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    void searchCards_asUser_forbidden() {
+        authenticateAs(user);
+
+        assertThrows(SecurityException.class, () -> cardService.searchCards(emptyFilter(), null, 20));
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    void searchCards_invalidSize() {
+        authenticateAs(admin);
+
+        assertThrows(IllegalArgumentException.class, () -> cardService.searchCards(emptyFilter(), null, 0));
+        assertThrows(IllegalArgumentException.class, () -> cardService.searchCards(emptyFilter(), null, 101));
+        verifyNoInteractions(cardRepository);
+    }
+
+    private CardSearchFilter emptyFilter() {
+        return new CardSearchFilter(null, null, null, null, null, null, null);
+    }
+
+    @Test
+    void getUsersCards_asAdmin_userNotFound() {
+        authenticateAs(admin);
+
+        Pageable pageable = PageRequest.of(0, 10);
+        when(cardRepository.findByOwnerId(555L, pageable)).thenReturn(Page.empty(pageable));
+        when(userRepository.existsById(555L)).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class, () -> cardService.getUserCards(555L, pageable));
     }
 
     // Update card status
@@ -248,6 +449,8 @@ public class CardServiceTest {
 
         assertEquals(CardStatus.BLOCKED, result.cardStatus());
         assertEquals(CardStatus.BLOCKED, card.getStatus());
+        verify(eventPublisher).publishEvent(new CardChangedEvent(card.getId(), user.getId()));
+        verify(eventPublisher).publishEvent(new CardUpdatedEvent(result, user.getId()));
 
     }
 
@@ -276,7 +479,31 @@ public class CardServiceTest {
         assertEquals(BigDecimal.valueOf(500).setScale(2), to.getBalance());
 
         verify(cardRepository).saveAll(any());
+        verify(eventPublisher).publishEvent(new CardChangedEvent(from.getId(), user.getId()));
+        verify(eventPublisher).publishEvent(new CardChangedEvent(to.getId(), user.getId()));
+        verify(eventPublisher).publishEvent(argThat((Object event) -> event instanceof CardUpdatedEvent updated
+                && updated.card().id().equals(from.getId())
+                && updated.card().balance().equals(BigDecimal.valueOf(1000).setScale(2))));
+
+    }
+
+    @Test
+    void transfer_pessimisticMode_locksBothCards() {
+        authenticateAs(user);
+        ConcurrencyConfig.Operation policy = new ConcurrencyConfig.Operation();
+        policy.setMode(LockMode.PESSIMISTIC);
+        concurrencyConfig.getOperations().put(ConflictOperations.TRANSFER, policy);
 
+        Card from = createCard(user, "8000700060005000", BigDecimal.valueOf(1500), CardStatus.ACTIVE);
+        Card to = createCard(user, "1000200030004000", BigDecimal.ZERO, CardStatus.ACTIVE);
+
+        when(cardRepository.findAllForUpdateByIdIn(List.of(from.getId(), to.getId()))).thenReturn(List.of(to, from));
+
+        cardService.transfer(from.getId(), to.getId(), BigDecimal.valueOf(500));
+
+        assertEquals(BigDecimal.valueOf(1000).setScale(2), from.getBalance());
+        assertEquals(BigDecimal.valueOf(500).setScale(2), to.getBalance());
+        verify(cardRepository, never()).findById(any());
     }
 
     @Test
@@ -315,6 +542,23 @@ public class CardServiceTest {
                 () -> cardService.transfer(from.getId(), to.getId(), BigDecimal.valueOf(1)));
     }
 
+    @Test
+    void transfer_expiredCard_forbidden() {
+        authenticateAs(user);
+
+        Card from = createCard(user, "8000700060005000", BigDecimal.valueOf(1500), CardStatus.ACTIVE);
+        Card to = createCard(user, "1000200030004000", BigDecimal.ZERO, CardStatus.ACTIVE);
+        to.setExpiryYear(2020);
+        to.setExpiryMonth(1);
+
+        when(cardRepository.findById(from.getId())).thenReturn(Optional.of(from));
+        when(cardRepository.findById(to.getId())).thenReturn(Optional.of(to));
+
+        assertThrows(IllegalStateException.class,
+                () -> cardService.transfer(from.getId(), to.getId(), BigDecimal.valueOf(1)));
+        verify(cardRepository, never()).saveAll(any());
+    }
+
     @Test
     void transfer_otherUsersCard_forbidden() {
         authenticateAs(otherUser);
@@ -340,6 +584,10 @@ public class CardServiceTest {
         cardService.deleteCard(card.getId());
 
         verify(cardRepository, times(1)).delete(card);
+        verify(balanceSummaryService).cardRemoved(user.getId(), card.getBalance());
+        verify(userRepository).incrementVersion(user.getId());
+        verify(eventPublisher).publishEvent(new CardChangedEvent(card.getId(), user.getId()));
+        verify(eventPublisher).publishEvent(new CardRemovedEvent(card.getId(), user.getId()));
     }
 
     @Test
@@ -0,0 +1,170 @@
+package com.example.bankcards.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.bankcards.config.UserImportConfig;
+import com.example.bankcards.dto.BulkUserResult;
+import com.example.bankcards.dto.UserRequest;
+import com.example.bankcards.entity.Role;
+import com.example.bankcards.entity.User;
+import com.example.bankcards.event.UserNameChangedEvent;
+import com.example.bankcards.exception.DuplicateUsernameException;
+import com.example.bankcards.repository.UserRepository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+
+class UserImportServiceTest {
+
+    private UserRepository userRepository;
+    private PasswordEncoder passwordEncoder;
+    private Session session;
+    private ApplicationEventPublisher eventPublisher;
+    private UserImportConfig config;
+    private UserImportService userImportService;
+
+    @BeforeEach
+    void init() {
+        userRepository = mock(UserRepository.class);
+        passwordEncoder = mock(PasswordEncoder.class);
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> "encoded:" + invocation.getArgument(0));
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(List.of());
+        when(userRepository.saveAll(anyCollection())).thenAnswer(invocation -> {
+            List<User> saved = new ArrayList<>();
+            long id = 1;
+            for (User user : invocation.<Collection<User>>getArgument(0)) {
+                user.setId(id++);
+                user.setCards(Collections.emptyList());
+                saved.add(user);
+            }
+            return saved;
+        });
+        EntityManager entityManager = mock(EntityManager.class);
+        session = mock(Session.class);
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        config = new UserImportConfig();
+        config.setHashThreads(4);
+        config.setMaxBatchSize(10);
+        userImportService = new UserImportService(userRepository, passwordEncoder,
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), entityManager, eventPublisher,
+                config);
+    }
+
+    @AfterEach
+    void shutdown() {
+        userImportService.shutdown();
+    }
+
+    private static UserRequest request(String username) {
+        return new UserRequest(username, "Full " + username, "password-" + username, Role.USER);
+    }
+
+    @Test
+    void createUsers_createsAllValidRowsInOneBatch() {
+        BulkUserResult result = userImportService.createUsers(List.of(request("a"), request("b"), request("c")));
+
+        assertEquals(List.of("a", "b", "c"), result.created().stream().map(u -> u.username()).toList());
+        assertTrue(result.failed().isEmpty());
+        verify(userRepository, times(1)).findExistingUsernames(anyCollection());
+        verify(userRepository, times(1)).saveAll(anyCollection());
+        verify(userRepository, never()).existsByUsername(anyString());
+        verify(session).setJdbcBatchSize(config.getInsertBatchSize());
+        verify(eventPublisher, times(3)).publishEvent(any(UserNameChangedEvent.class));
+    }
+
+    @Test
+    void createUsers_hashesEveryPasswordOnThePool() {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        when(passwordEncoder.encode(anyString())).thenAnswer(invocation -> {
+            threads.add(Thread.currentThread().getName());
+            return "encoded";
+        });
+
+        userImportService.createUsers(List.of(request("a"), request("b")));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<User>> saved = ArgumentCaptor.forClass(Collection.class);
+        verify(userRepository).saveAll(saved.capture());
+        assertTrue(saved.getValue().stream().allMatch(u -> u.getPassword().equals("encoded")));
+        assertTrue(threads.stream().allMatch(name -> name.startsWith("password-hash-")));
+    }
+
+    @Test
+    void createUsers_reportsFailedRowsAndCreatesTheRest() {
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(List.of("taken"));
+        UserRequest invalid = new UserRequest("", "No Name", "password", Role.USER);
+
+        BulkUserResult result = userImportService.createUsers(
+                List.of(request("a"), invalid, request("taken"), request("a"), request("b")));
+
+        assertEquals(List.of("a", "b"), result.created().stream().map(u -> u.username()).toList());
+        assertEquals(List.of(1, 2, 3), result.failed().stream().map(e -> e.index()).toList());
+        assertEquals("username: Username cannot be empty", result.failed().get(0).message());
+        assertEquals("Username already in use: taken", result.failed().get(1).message());
+        assertEquals("Duplicate username in request: a", result.failed().get(2).message());
+        verify(passwordEncoder, times(2)).encode(anyString());
+    }
+
+    @Test
+    void createUsers_skipsInsertWhenNoRowIsValid() {
+        when(userRepository.findExistingUsernames(anyCollection())).thenReturn(List.of("a"));
+
+        BulkUserResult result = userImportService.createUsers(List.of(request("a")));
+
+        assertTrue(result.created().isEmpty());
+        assertEquals(1, result.failed().size());
+        verify(userRepository, never()).saveAll(anyCollection());
+        verify(passwordEncoder, never()).encode(anyString());
+    }
+
+    @Test
+    void createUsers_rejectsEmptyAndOversizedBatches() {
+        List<UserRequest> tooMany = new ArrayList<>();
+        for (int i = 0; i <= config.getMaxBatchSize(); i++)
+            tooMany.add(request("u" + i));
+
+        assertThrows(IllegalArgumentException.class, () -> userImportService.createUsers(List.of()));
+        assertThrows(IllegalArgumentException.class, () -> userImportService.createUsers(tooMany));
+        verify(userRepository, never()).findExistingUsernames(anyCollection());
+    }
+
+    @Test
+    void createUsers_concurrentDuplicateFailsTheBatch() {
+        when(userRepository.saveAll(anyCollection())).thenThrow(new DataIntegrityViolationException("unique"));
+
+        assertThrows(DuplicateUsernameException.class,
+                () -> userImportService.createUsers(List.of(request("a"))));
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+}
@@ -1,9 +1,13 @@
 package com.example.bankcards.service;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -13,31 +17,41 @@ import java.util.Optional;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import com.example.bankcards.config.ConcurrencyConfig;
 import com.example.bankcards.dto.UserDto;
 import com.example.bankcards.dto.UserRequest;
+import com.example.bankcards.dto.UserSearchResult;
 import com.example.bankcards.entity.Role;
 import com.example.bankcards.entity.User;
 import com.example.bankcards.exception.DuplicateUsernameException;
 import com.example.bankcards.exception.UserNotFoundException;
 import com.example.bankcards.repository.UserRepository;
+import com.example.bankcards.search.UserNameIndex;
 
 class UserServiceTest {
 
     private UserRepository userRepository;
     private PasswordEncoder passwordEncoder;
+    private BalanceSummaryService balanceSummaryService;
+    private UserNameIndex userNameIndex;
     private UserService userService;
 
     @BeforeEach
     void init() {
         userRepository = mock(UserRepository.class);
         passwordEncoder = mock(PasswordEncoder.class);
-        userService = new UserService(userRepository, passwordEncoder);
+        balanceSummaryService = mock(BalanceSummaryService.class);
+        userNameIndex = mock(UserNameIndex.class);
+        userService = new UserService(userRepository, passwordEncoder, balanceSummaryService,
+                new ConcurrencyConfig(), mock(ApplicationEventPublisher.class), userNameIndex);
     }
 
     private User createUser(Long id) {
@@ -107,6 +121,49 @@ class UserServiceTest {
         assertThrows(UserNotFoundException.class, () -> userService.getUserById(15L));
     }
 
+    @Test
+    void getVersionedUser_etagFromVersion() {
+        User saved = createUser(10L);
+        saved.setVersion(4L);
+        when(userRepository.findById(10L)).thenReturn(Optional.of(saved));
+
+        assertEquals("\"4\"", userService.getVersionedUser(10L).etag());
+    }
+
+    @Test
+    void getUserETag_usesVersionOnlyQuery() {
+        when(userRepository.findVersionById(10L)).thenReturn(Optional.of(4L));
+
+        assertEquals("\"4\"", userService.getUserETag(10L));
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getUserETag_userNotFound() {
+        when(userRepository.findVersionById(15L)).thenReturn(Optional.empty());
+
+        assertThrows(UserNotFoundException.class, () -> userService.getUserETag(15L));
+    }
+
+    // Get by ids
+    @Test
+    void getUsers_oneQueryForFoundAndMissing() {
+        User first = createUser(10L);
+        User second = createUser(11L);
+        when(userRepository.findAllWithCardsByIdIn(List.of(11L, 12L, 10L))).thenReturn(List.of(first, second));
+
+        var result = userService.getUsers(List.of(11L, 12L, 10L, 11L));
+
+        assertEquals(List.of(11L, 10L), result.found().stream().map(UserDto::id).toList());
+        assertEquals(List.of(12L), result.missing());
+        verify(userRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void getUsers_emptyIds() {
+        assertThrows(IllegalArgumentException.class, () -> userService.getUsers(List.of()));
+    }
+
     // Get by fullname
     @Test
     void getUserByFullname_success() {
@@ -127,6 +184,85 @@ class UserServiceTest {
         assertThrows(UserNotFoundException.class, () -> userService.getUserByFullname("John Doe"));
     }
 
+    // Search by full name
+    @Test
+    void searchUsers_firstPage() {
+        when(userRepository.findIdsByFullNamePrefix("john d", "john e", Limit.of(3)))
+                .thenReturn(List.of(62L, 61L, 63L));
+        when(userRepository.findAllWithCardsByIdIn(List.of(62L, 61L)))
+                .thenReturn(List.of(createUser(61L), createUser(62L)));
+
+        UserSearchResult result = userService.searchUsers("  John   D", null, 2);
+
+        assertEquals(List.of(62L, 61L), result.content().stream().map(UserDto::id).toList());
+        assertEquals(61L, result.nextCursor());
+    }
+
+    @Test
+    void searchUsers_nextPage() {
+        when(userRepository.findFullNameNormalizedById(61L)).thenReturn(Optional.of("john doe"));
+        when(userRepository.findIdsByFullNamePrefixAfter("john", "joho", "john doe", 61L, Limit.of(3)))
+                .thenReturn(List.of(63L));
+        when(userRepository.findAllWithCardsByIdIn(List.of(63L))).thenReturn(List.of(createUser(63L)));
+
+        UserSearchResult result = userService.searchUsers("John", 61L, 2);
+
+        assertEquals(List.of(63L), result.content().stream().map(UserDto::id).toList());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    void searchUsers_prefixWithoutUpperBound() {
+        String max = new String(Character.toChars(Character.MAX_CODE_POINT));
+        when(userRepository.findIdsByFullNameFrom(max, Limit.of(3))).thenReturn(List.of(64L));
+        when(userRepository.findAllWithCardsByIdIn(List.of(64L))).thenReturn(List.of(createUser(64L)));
+
+        UserSearchResult result = userService.searchUsers(max, null, 2);
+
+        assertEquals(List.of(64L), result.content().stream().map(UserDto::id).toList());
+        verify(userRepository, never()).findIdsByFullNamePrefix(any(), any(), any());
+    }
+
+    @Test
+    void searchUsers_noMatches() {
+        when(userRepository.findIdsByFullNamePrefix(any(), any(), any())).thenReturn(List.of());
+
+        UserSearchResult result = userService.searchUsers("Nobody", null, 20);
+
+        assertTrue(result.content().isEmpty());
+        assertNull(result.nextCursor());
+        verify(userRepository, never()).findAllWithCardsByIdIn(any());
+    }
+
+    @Test
+    void searchUsers_unknownCursor() {
+        when(userRepository.findFullNameNormalizedById(99L)).thenReturn(Optional.empty());
+
+        assertThrows(IllegalArgumentException.class, () -> userService.searchUsers("John", 99L, 20));
+    }
+
+    @Test
+    void searchUsers_blankName() {
+        assertThrows(IllegalArgumentException.class, () -> userService.searchUsers("   ", null, 20));
+    }
+
+    @Test
+    void searchUsers_invalidSize() {
+        assertThrows(IllegalArgumentException.class, () -> userService.searchUsers("John", null, 101));
+    }
+
+    @Test
+    void suggestFullNames_delegatesToIndex() {
+        when(userNameIndex.suggest("jo", 5)).thenReturn(List.of("John Doe"));
+
+        assertEquals(List.of("John Doe"), userService.suggestFullNames("jo", 5));
+    }
+
+    @Test
+    void suggestFullNames_invalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> userService.suggestFullNames("jo", 0));
+    }
+
     // Get all users
     @Test
     void getAllUsers_success() {
@@ -191,19 +327,22 @@ class UserServiceTest {
     // Delete user
     @Test
     void deleteUser_success() {
-        User existing = createUser(50L);
-        when(userRepository.findById(50L)).thenReturn(Optional.of(existing));
+        when(userRepository.findFullNameForUpdateById(50L)).thenReturn(Optional.of("John Doe"));
 
         userService.deleteUser(50L);
 
-        verify(userRepository).deleteById(50L);
+        verify(balanceSummaryService).userRemoved(50L);
+        verify(userRepository).deleteWithCardsById(50L);
+        verify(userRepository, never()).findById(50L);
+        verify(userRepository, never()).deleteById(50L);
     }
 
     @Test
     void deleteUser_userNotFound() {
-        when(userRepository.findById(55L)).thenReturn(Optional.empty());
+        when(userRepository.findFullNameForUpdateById(55L)).thenReturn(Optional.empty());
 
         assertThrows(UserNotFoundException.class, () -> userService.deleteUser(55L));
+        verify(userRepository, never()).deleteWithCardsById(55L);
     }
 
 }
@@ -0,0 +1,104 @@
+package com.example.bankcards.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import com.example.bankcards.config.EncryptionConfig;
+import com.example.bankcards.config.WarmupConfig;
+import com.example.bankcards.repository.CardRepository;
+import com.example.bankcards.security.JwtUtil;
+import com.example.bankcards.util.CardNumberConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class WarmupRunnerTest {
+
+    private WarmupConfig config;
+    private CardRepository cardRepository;
+    private WarmupRunner warmupRunner;
+
+    @BeforeEach
+    void init() {
+        EncryptionConfig encryptionConfig = new EncryptionConfig();
+        encryptionConfig.setAlgorithm("AES");
+        encryptionConfig.setSecretKey("MySuperSecretKey");
+        CardNumberConverter.setStaticConfig(encryptionConfig);
+
+        config = new WarmupConfig();
+        cardRepository = mock(CardRepository.class);
+        when(cardRepository.findWithOwnerById(any())).thenReturn(Optional.empty());
+        when(cardRepository.findByOwnerId(anyLong(), any(Pageable.class))).thenReturn(Page.empty());
+        JwtUtil jwtUtil = new JwtUtil("warmup-test-secret-key-that-is-long-enough-for-hs256", 60_000);
+        warmupRunner = new WarmupRunner(config, jwtUtil, new CardNumberConverter(), new ObjectMapper(),
+                cardRepository);
+    }
+
+    @Test
+    void warmUp_runsConfiguredIterations() {
+        config.setIterations(20);
+        config.setDatabaseReads(true);
+
+        assertEquals(20, warmupRunner.warmUp());
+
+        verify(cardRepository, times(20)).findWithOwnerById(any());
+        verify(cardRepository, times(20)).findByOwnerId(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void warmUp_stopsAtMaxDuration() {
+        config.setIterations(Integer.MAX_VALUE);
+        config.setMaxDuration(Duration.ofMillis(200));
+
+        long start = System.nanoTime();
+        int iterations = warmupRunner.warmUp();
+
+        assertTrue(iterations > 0 && iterations < Integer.MAX_VALUE);
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toSeconds() < 5);
+    }
+
+    @Test
+    void warmUp_capsDatabaseReads() {
+        config.setIterations(20);
+        config.setDatabaseReads(true);
+        config.setDatabaseIterations(3);
+
+        assertEquals(20, warmupRunner.warmUp());
+
+        verify(cardRepository, times(3)).findWithOwnerById(any());
+        verify(cardRepository, times(3)).findByOwnerId(anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void warmUp_skipsDatabaseByDefault() {
+        config.setIterations(5);
+
+        assertEquals(5, warmupRunner.warmUp());
+
+        verifyNoInteractions(cardRepository);
+    }
+
+    @Test
+    void run_doesNothingWhenDisabled() {
+        config.setEnabled(false);
+
+        warmupRunner.run(new DefaultApplicationArguments());
+
+        verifyNoInteractions(cardRepository);
+    }
+
+}
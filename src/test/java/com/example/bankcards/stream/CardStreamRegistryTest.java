@@ -0,0 +1,268 @@
+package com.example.bankcards.stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.bankcards.config.CardStreamConfig;
+import com.example.bankcards.dto.CardDto;
+import com.example.bankcards.entity.CardStatus;
+import com.example.bankcards.event.CardRemovedEvent;
+import com.example.bankcards.event.CardStatusChangedEvent;
+import com.example.bankcards.event.CardUpdatedEvent;
+import com.example.bankcards.exception.RateLimitExceededException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+class CardStreamRegistryTest {
+
+    private CardStreamConfig config;
+    private SimpleMeterRegistry meterRegistry;
+    private List<Object> published;
+    private CardStreamRegistry registry;
+
+    // Stands in for the container's non-blocking stream: accepts writes only while ready
+    static class FakeOutputStream extends ServletOutputStream {
+
+        final ByteArrayOutputStream written = new ByteArrayOutputStream();
+        boolean ready = true;
+        boolean failing;
+        WriteListener listener;
+
+        @Override
+        public boolean isReady() {
+            return ready;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            this.listener = writeListener;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (failing)
+                throw new IOException("Broken pipe");
+            written.write(b);
+        }
+
+        String text() {
+            return written.toString(StandardCharsets.UTF_8);
+        }
+
+    }
+
+    @BeforeEach
+    void init() {
+        config = new CardStreamConfig();
+        meterRegistry = new SimpleMeterRegistry();
+        published = new ArrayList<>();
+        registry = new CardStreamRegistry(config, new ObjectMapper(), published::add, meterRegistry);
+    }
+
+    @AfterEach
+    void shutdown() {
+        registry.shutdown();
+    }
+
+    private CardDto card(long balance) {
+        return new CardDto(UUID.randomUUID(), "**** **** **** 1234", "John Doe", 2030, 10, CardStatus.ACTIVE,
+                BigDecimal.valueOf(balance));
+    }
+
+    private FakeOutputStream open(Long userId) throws IOException {
+        FakeOutputStream out = new FakeOutputStream();
+        registry.register(userId).start(mock(AsyncContext.class), out);
+        out.listener.onWritePossible();
+        return out;
+    }
+
+    private CardSubscriber subscriber(FakeOutputStream out, AsyncContext asyncContext, int bufferSize) {
+        CardSubscriber subscriber = new CardSubscriber(10L, bufferSize);
+        subscriber.start(asyncContext, out);
+        return subscriber;
+    }
+
+    // Registry
+    @Test
+    void onCardUpdated_deliversOnlyToOwner() throws IOException {
+        FakeOutputStream owner = open(10L);
+        FakeOutputStream other = open(11L);
+
+        registry.onCardUpdated(new CardUpdatedEvent(card(42), 10L));
+
+        assertTrue(owner.text().startsWith("event:card\ndata:{"));
+        assertTrue(owner.text().contains("\"balance\":42"));
+        assertTrue(owner.text().endsWith("\n\n"));
+        assertEquals("", other.text());
+        assertEquals(2, registry.getConnectionCount());
+    }
+
+    @Test
+    void onCardUpdated_publishesMessageForOtherNodes() {
+        registry.onCardUpdated(new CardUpdatedEvent(card(42), 10L));
+
+        assertEquals(1, published.size());
+        CardStreamMessage message = (CardStreamMessage) published.get(0);
+        assertEquals(10L, message.ownerId());
+        assertEquals("card", message.event());
+        assertTrue(message.data().contains("\"balance\":42"));
+    }
+
+    @Test
+    void onCardStatusChanged_sendsStatusOnly() throws IOException {
+        FakeOutputStream owner = open(10L);
+        UUID cardId = UUID.randomUUID();
+
+        registry.onCardStatusChanged(new CardStatusChangedEvent(cardId, 10L, CardStatus.EXPIRED));
+
+        assertEquals("event:card-status\ndata:{\"id\":\"" + cardId + "\",\"cardStatus\":\"EXPIRED\"}\n\n",
+                owner.text());
+        assertEquals("card-status", ((CardStreamMessage) published.get(0)).event());
+    }
+
+    @Test
+    void onCardRemoved_sendsCardId() throws IOException {
+        FakeOutputStream owner = open(10L);
+        UUID cardId = UUID.randomUUID();
+
+        registry.onCardRemoved(new CardRemovedEvent(cardId, 10L));
+
+        assertEquals("event:card-removed\ndata:{\"id\":\"" + cardId + "\"}\n\n", owner.text());
+    }
+
+    @Test
+    void deliver_relayedEventIsNotPublishedAgain() throws IOException {
+        FakeOutputStream owner = open(10L);
+
+        registry.deliver(10L, "card", "{\"balance\":7}");
+
+        assertEquals("event:card\ndata:{\"balance\":7}\n\n", owner.text());
+        assertTrue(published.isEmpty());
+    }
+
+    @Test
+    void register_limitsConnectionsPerUser() {
+        config.setMaxConnectionsPerUser(2);
+        registry.register(10L);
+        registry.register(10L);
+
+        assertThrows(RateLimitExceededException.class, () -> registry.register(10L));
+        registry.register(11L);
+        assertEquals(3, registry.getConnectionCount());
+    }
+
+    @Test
+    void closeStalled_closesSubscriberThatAcceptsNothing() throws IOException {
+        config.setWriteTimeout(Duration.ZERO);
+        FakeOutputStream out = new FakeOutputStream();
+        AsyncContext asyncContext = mock(AsyncContext.class);
+        CardSubscriber subscriber = registry.register(10L);
+        subscriber.start(asyncContext, out);
+        out.listener.onWritePossible();
+        out.ready = false;
+
+        registry.deliver(10L, "card", "{}");
+        registry.closeStalled();
+
+        assertTrue(subscriber.isClosed());
+        verify(asyncContext).complete();
+        assertEquals(0, registry.getConnectionCount());
+        assertEquals(1, meterRegistry.counter("cards.stream.stalled").count());
+    }
+
+    @Test
+    void closeStalled_keepsIdleSubscriber() throws IOException {
+        config.setWriteTimeout(Duration.ZERO);
+        open(10L);
+
+        registry.closeStalled();
+
+        assertEquals(1, registry.getConnectionCount());
+    }
+
+    // Subscriber
+    @Test
+    void subscriber_buffersUntilWritable() throws IOException {
+        FakeOutputStream out = new FakeOutputStream();
+        CardSubscriber subscriber = subscriber(out, mock(AsyncContext.class), 4);
+
+        subscriber.offer(bytes("a"));
+        assertEquals("", out.text());
+
+        out.listener.onWritePossible();
+        assertEquals("a", out.text());
+    }
+
+    @Test
+    void subscriber_dropsOldestWhenBufferFull() throws IOException {
+        FakeOutputStream out = new FakeOutputStream();
+        CardSubscriber subscriber = subscriber(out, mock(AsyncContext.class), 2);
+        out.listener.onWritePossible();
+        out.ready = false;
+
+        assertTrue(subscriber.offer(bytes("a")));
+        assertTrue(subscriber.offer(bytes("b")));
+        assertFalse(subscriber.offer(bytes("c")));
+
+        out.ready = true;
+        out.listener.onWritePossible();
+
+        assertEquals("bc", out.text());
+    }
+
+    @Test
+    void subscriber_heartbeatOnlyWhenIdle() throws IOException {
+        FakeOutputStream out = new FakeOutputStream();
+        CardSubscriber subscriber = subscriber(out, mock(AsyncContext.class), 2);
+        out.listener.onWritePossible();
+        out.ready = false;
+
+        subscriber.offer(bytes("a"));
+        subscriber.offerIfIdle(bytes(":hb"));
+        out.ready = true;
+        out.listener.onWritePossible();
+        subscriber.offerIfIdle(bytes(":hb"));
+
+        assertEquals("a:hb", out.text());
+    }
+
+    @Test
+    void subscriber_closedAfterFailedWrite() throws IOException {
+        FakeOutputStream out = new FakeOutputStream();
+        out.failing = true;
+        AsyncContext asyncContext = mock(AsyncContext.class);
+        CardSubscriber subscriber = subscriber(out, asyncContext, 2);
+        out.listener.onWritePossible();
+
+        subscriber.offer(bytes("a"));
+
+        assertTrue(subscriber.isClosed());
+        verify(asyncContext).complete();
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+}
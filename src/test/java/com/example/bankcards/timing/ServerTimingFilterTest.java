@@ -0,0 +1,102 @@
+package com.example.bankcards.timing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import com.example.bankcards.config.ServerTimingConfig;
+import com.example.bankcards.timing.ServerTiming.Stage;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+class ServerTimingFilterTest {
+
+    private ServerTimingConfig config;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void init() {
+        config = new ServerTimingConfig();
+        config.setExposeHeader(true);
+        request = new MockHttpServletRequest("GET", "/api/cards/1");
+        response = new MockHttpServletResponse();
+    }
+
+    private void perform(HttpServlet handler) throws Exception {
+        new ServerTimingFilter(config).doFilter(request, response, new MockFilterChain(handler));
+    }
+
+    private static List<String> metrics(String header) {
+        return Arrays.stream(header.split(", ")).map(metric -> metric.substring(0, metric.indexOf(';'))).toList();
+    }
+
+    @Test
+    void reportsRecordedStagesAndTotal() throws Exception {
+        perform(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                ServerTiming.start(Stage.SERVICE);
+                ServerTiming.start(Stage.DB);
+                // Nested repository call
+                ServerTiming.start(Stage.DB);
+                ServerTiming.stop(Stage.DB);
+                ServerTiming.stop(Stage.DB);
+                ServerTiming.stop(Stage.SERVICE);
+            }
+        });
+
+        String header = response.getHeader(ServerTimingFilter.HEADER);
+        assertEquals(List.of("service", "db", "total"), metrics(header));
+        assertTrue(header.matches("(\\w+;dur=\\d+\\.\\d{2}(, )?)+"), header);
+        assertEquals(List.of("service", "db", "total"),
+                metrics((String) request.getAttribute(ServerTimingFilter.ATTRIBUTE)));
+    }
+
+    @Test
+    void includesStageRunningWhenResponseCommits() throws Exception {
+        perform(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                ServerTiming.start(Stage.JSON);
+                resp.getWriter().write("{}");
+                resp.flushBuffer();
+                ServerTiming.stop(Stage.JSON);
+            }
+        });
+
+        assertEquals(List.of("json", "total"), metrics(response.getHeader(ServerTimingFilter.HEADER)));
+    }
+
+    @Test
+    void noHeaderWhenNotExposed() throws Exception {
+        config.setExposeHeader(false);
+
+        perform(new HttpServlet() {
+        });
+
+        assertNull(response.getHeader(ServerTimingFilter.HEADER));
+        assertEquals(List.of("total"), metrics((String) request.getAttribute(ServerTimingFilter.ATTRIBUTE)));
+    }
+
+    @Test
+    void recordingOutsideRequestIsIgnored() {
+        ServerTiming.start(Stage.AES);
+        ServerTiming.stop(Stage.AES);
+
+        assertNull(ServerTiming.header());
+    }
+
+}
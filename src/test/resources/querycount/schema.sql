@@ -0,0 +1,46 @@
+-- H2 version of the schema Hibernate generates, without the PostgreSQL-only collate "C" on
+-- users.full_name_normalized. ReadPathQueryCountTest validates it against the entities.
+create table users (
+    id bigint not null,
+    full_name varchar(255) not null,
+    full_name_normalized varchar(255),
+    password varchar(255) not null,
+    role enum ('ADMIN','USER') not null,
+    username varchar(255) not null,
+    version bigint default 0 not null,
+    primary key (id),
+    constraint uk_users_username unique (username)
+);
+
+create table cards (
+    id uuid not null,
+    balance numeric(19,2) not null,
+    expiry_month integer not null,
+    expiry_year integer not null,
+    last4 varchar(4) not null,
+    number_encrypted varchar(4096),
+    status enum ('ACTIVE','BLOCKED','EXPIRED') not null,
+    version bigint default 0 not null,
+    owner_id bigint not null,
+    primary key (id),
+    constraint fk_cards_owner foreign key (owner_id) references users on delete cascade
+);
+
+create table user_balance_summary (
+    user_id bigint not null,
+    card_count bigint not null,
+    total_balance numeric(19,2) not null,
+    primary key (user_id)
+);
+
+create table balance_totals (
+    id integer not null,
+    card_count bigint not null,
+    total_balance numeric(19,2) not null,
+    primary key (id)
+);
+
+create index idx_cards_owner_id on cards (owner_id);
+create index idx_users_full_name_normalized_id on users (full_name_normalized, id);
+
+create sequence users_seq start with 1 increment by 50;